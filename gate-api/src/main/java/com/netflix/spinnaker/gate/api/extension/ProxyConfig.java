@@ -44,6 +44,27 @@ public class ProxyConfig {
   /** Write timeout, defaults to 30s. */
   private Long writeTimeoutMs = 30_000L;
 
+  /** Maximum number of idle connections kept open to this proxy, defaults to 5. */
+  private Integer maxIdleConnections = 5;
+
+  /** How long an idle connection is kept alive, defaults to 5m. */
+  private Long keepAliveMs = 300_000L;
+
+  /**
+   * Maximum number of concurrent in-flight requests to this proxy, unlimited if unset. Requests in
+   * excess of this limit wait for up to {@code maxQueueWaitMs} and are then rejected.
+   */
+  private Integer maxConcurrentRequests;
+
+  /** How long a request may wait for capacity when at {@code maxConcurrentRequests}. */
+  private Long maxQueueWaitMs = 0L;
+
+  /**
+   * Copy request and response bodies through as bytes rather than buffering and re-parsing them,
+   * defaults to false.
+   */
+  private Boolean streaming = false;
+
   /** Additional attributes for this proxy. */
   private Map<String, String> additionalAttributes = new HashMap<>();
 }
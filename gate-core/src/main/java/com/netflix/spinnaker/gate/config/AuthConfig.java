@@ -21,8 +21,10 @@ import com.netflix.spinnaker.fiat.shared.FiatClientConfigurationProperties;
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
 import com.netflix.spinnaker.fiat.shared.FiatStatus;
 import com.netflix.spinnaker.gate.filters.FiatSessionFilter;
+import com.netflix.spinnaker.gate.security.RequestPermissionContext;
 import com.netflix.spinnaker.gate.services.ServiceAccountFilterConfigProps;
 import com.netflix.spinnaker.kork.annotations.NonnullByDefault;
+import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -66,6 +68,10 @@ public class AuthConfig {
       onParam_ = {@Value("${security.webhooks.default-auth-enabled:false}")})
   private boolean webhookDefaultAuthEnabled;
 
+  @Nullable
+  @Setter(onMethod_ = {@Autowired(required = false)})
+  private RequestPermissionContext requestPermissionContext;
+
   @Bean
   public WebSecurityCustomizer securityDebugCustomizer() {
     return web -> web.debug(securityDebug);
@@ -123,7 +129,8 @@ public class AuthConfig {
         .csrf(AbstractHttpConfigurer::disable);
 
     if (fiatSessionFilterEnabled) {
-      var filter = new FiatSessionFilter(fiatStatus, permissionEvaluator);
+      var filter =
+          new FiatSessionFilter(fiatStatus, permissionEvaluator, requestPermissionContext);
       http.addFilterBefore(filter, AnonymousAuthenticationFilter.class);
     }
   }
@@ -23,6 +23,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.event.LogoutSuccessEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
@@ -36,6 +38,7 @@ public class PermissionRevokingLogoutSuccessHandler
   public static final String LOGGED_OUT_URL = "/auth/loggedOut";
 
   private final PermissionService permissionService;
+  private final ApplicationEventPublisher eventPublisher;
   private final SimpleUrlLogoutSuccessHandler delegate = new SimpleUrlLogoutSuccessHandler();
 
   @Override
@@ -53,6 +56,8 @@ public class PermissionRevokingLogoutSuccessHandler
         var username = ((UserDetails) principal).getUsername();
         permissionService.logout(username);
       }
+      // lets anything caching authentications (ie. of bearer tokens) discard them
+      eventPublisher.publishEvent(new LogoutSuccessEvent(authentication));
     }
     delegate.onLogoutSuccess(request, response, authentication);
   }
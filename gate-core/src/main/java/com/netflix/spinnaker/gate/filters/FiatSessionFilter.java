@@ -21,9 +21,11 @@ import static net.logstash.logback.argument.StructuredArguments.value;
 import com.netflix.spinnaker.fiat.model.UserPermission;
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
 import com.netflix.spinnaker.fiat.shared.FiatStatus;
+import com.netflix.spinnaker.gate.security.RequestPermissionContext;
 import com.netflix.spinnaker.kork.annotations.NonnullByDefault;
 import com.netflix.spinnaker.security.AuthenticatedRequest;
 import java.io.IOException;
+import javax.annotation.Nullable;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -38,15 +40,27 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class FiatSessionFilter extends OncePerRequestFilter {
   private final FiatStatus fiatStatus;
   private final FiatPermissionEvaluator permissionEvaluator;
+  @Nullable private final RequestPermissionContext requestPermissionContext;
 
   public FiatSessionFilter(FiatStatus fiatStatus, FiatPermissionEvaluator permissionEvaluator) {
+    this(fiatStatus, permissionEvaluator, null);
+  }
+
+  public FiatSessionFilter(
+      FiatStatus fiatStatus,
+      FiatPermissionEvaluator permissionEvaluator,
+      @Nullable RequestPermissionContext requestPermissionContext) {
     this.fiatStatus = fiatStatus;
     this.permissionEvaluator = permissionEvaluator;
+    this.requestPermissionContext = requestPermissionContext;
   }
 
   /**
    * This filter checks if the user has an entry in Fiat, and if not, forces them to re-login. This
    * is handy for (re)populating the Fiat user repo for a deployment with existing users & sessions.
+   *
+   * <p>The permission found is also scoped to the request (see {@link RequestPermissionContext}) so
+   * that later consumers in the same request do not have to look it up again.
    */
   @Override
   protected void doFilterInternal(
@@ -70,6 +84,8 @@ public class FiatSessionFilter extends OncePerRequestFilter {
             session.invalidate();
             SecurityContextHolder.clearContext();
           }
+        } else if (requestPermissionContext != null) {
+          requestPermissionContext.set(user, fiatPermission);
         }
       } else {
         log.warn(
@@ -85,6 +101,9 @@ public class FiatSessionFilter extends OncePerRequestFilter {
     try {
       chain.doFilter(request, response);
     } finally {
+      if (requestPermissionContext != null) {
+        requestPermissionContext.clear();
+      }
       if (fiatPermission != null && fiatPermission.isLegacyFallback()) {
         log.info("Invalidating fallback permissions for {}", fiatPermission.getName());
         permissionEvaluator.invalidatePermission(fiatPermission.getName());
@@ -1,5 +1,7 @@
 package com.netflix.spinnaker.gate.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.netflix.spinnaker.fiat.model.Authorization;
 import com.netflix.spinnaker.fiat.model.UserPermission;
 import com.netflix.spinnaker.fiat.model.resources.Account;
@@ -9,6 +11,8 @@ import com.netflix.spinnaker.gate.services.CredentialsService;
 import com.netflix.spinnaker.security.AuthenticatedRequest;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +30,16 @@ public class AllowedAccountsSupport {
 
   private final CredentialsService credentialsService;
 
+  /**
+   * WRITE enabled accounts by username, along with the Fiat permission they were computed from. The
+   * permission evaluator hands out the same permission instance until it is refreshed or
+   * invalidated, so an entry is only reused while that instance is current.
+   */
+  private final Cache<String, AllowedAccounts> allowedAccountsByUser =
+      Caffeine.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+  private RequestPermissionContext requestPermissionContext;
+
   @Autowired
   public AllowedAccountsSupport(
       FiatStatus fiatStatus,
@@ -39,8 +53,7 @@ public class AllowedAccountsSupport {
   public Collection<String> filterAllowedAccounts(String username, Collection<String> roles) {
     if (fiatStatus.isEnabled()) {
       UserPermission.View permission =
-          AuthenticatedRequest.allowAnonymous(
-              () -> fiatPermissionEvaluator.getPermission(username));
+          AuthenticatedRequest.allowAnonymous(() -> getPermission(username));
       if (permission == null) {
         return new ArrayList<>();
       }
@@ -59,12 +72,45 @@ public class AllowedAccountsSupport {
         return allowedAccounts;
       }
 
-      return permission.getAccounts().stream()
-          .filter(v -> v.getAuthorizations().contains(Authorization.WRITE))
-          .map(Account.View::getName)
-          .collect(Collectors.toSet());
+      AllowedAccounts allowedAccounts = allowedAccountsByUser.getIfPresent(username);
+      if (allowedAccounts == null || allowedAccounts.permission != permission) {
+        allowedAccounts = new AllowedAccounts(permission);
+        allowedAccountsByUser.put(username, allowedAccounts);
+      }
+      return allowedAccounts.accounts;
     }
 
     return credentialsService.getAccountNames(roles);
   }
+
+  @Autowired(required = false)
+  public void setRequestPermissionContext(RequestPermissionContext requestPermissionContext) {
+    this.requestPermissionContext = requestPermissionContext;
+  }
+
+  private UserPermission.View getPermission(String username) {
+    return requestPermissionContext != null
+        ? requestPermissionContext.getPermission(username, fiatPermissionEvaluator)
+        : fiatPermissionEvaluator.getPermission(username);
+  }
+
+  /** Discard any allowed accounts computed for {@code username}, ie. on login or logout. */
+  public void invalidate(String username) {
+    allowedAccountsByUser.invalidate(username);
+  }
+
+  private static class AllowedAccounts {
+    private final UserPermission.View permission;
+    private final Collection<String> accounts;
+
+    AllowedAccounts(UserPermission.View permission) {
+      this.permission = permission;
+      this.accounts =
+          Collections.unmodifiableSet(
+              permission.getAccounts().stream()
+                  .filter(v -> v.getAuthorizations().contains(Authorization.WRITE))
+                  .map(Account.View::getName)
+                  .collect(Collectors.toSet()));
+    }
+  }
 }
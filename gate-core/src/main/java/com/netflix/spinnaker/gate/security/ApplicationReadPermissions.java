@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.spinnaker.fiat.model.Authorization;
+import com.netflix.spinnaker.fiat.model.UserPermission;
+import com.netflix.spinnaker.fiat.model.resources.Application;
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
+import com.netflix.spinnaker.fiat.shared.FiatStatus;
+import com.netflix.spinnaker.security.AuthenticatedRequest;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves which applications the current user may READ, for filtering large application listings
+ * in one pass rather than evaluating {@code hasPermission(name, 'APPLICATION', 'READ')} per
+ * application.
+ *
+ * <p>The rules mirror {@link FiatPermissionEvaluator}: everything is readable when Fiat is disabled
+ * or for admins and legacy fallback permissions, an application is readable when the permission
+ * grants READ on it, and applications unknown to Fiat are readable when the permission allows
+ * access to unknown applications.
+ */
+@Component
+public class ApplicationReadPermissions {
+  private final FiatStatus fiatStatus;
+  private final FiatPermissionEvaluator permissionEvaluator;
+
+  /**
+   * Readable applications by username, along with the permission they were computed from (reused
+   * only while the evaluator hands out that same permission instance).
+   */
+  private final Cache<String, ReadableApplications> readableApplicationsByUser =
+      Caffeine.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).maximumSize(10_000).build();
+
+  private RequestPermissionContext requestPermissionContext;
+
+  @Autowired
+  public ApplicationReadPermissions(
+      FiatStatus fiatStatus, FiatPermissionEvaluator permissionEvaluator) {
+    this.fiatStatus = fiatStatus;
+    this.permissionEvaluator = permissionEvaluator;
+  }
+
+  @Autowired(required = false)
+  public void setRequestPermissionContext(RequestPermissionContext requestPermissionContext) {
+    this.requestPermissionContext = requestPermissionContext;
+  }
+
+  /** @return the applications readable by the user making the current request */
+  public ReadableApplications forCurrentUser() {
+    if (!fiatStatus.isEnabled()) {
+      return ReadableApplications.ALL;
+    }
+    return forUser(getUsername(SecurityContextHolder.getContext().getAuthentication()));
+  }
+
+  ReadableApplications forUser(String username) {
+    UserPermission.View permission =
+        AuthenticatedRequest.allowAnonymous(
+            () ->
+                requestPermissionContext != null
+                    ? requestPermissionContext.getPermission(username, permissionEvaluator)
+                    : permissionEvaluator.getPermission(username));
+    if (permission == null) {
+      return ReadableApplications.NONE;
+    }
+    if (permission.isAdmin() || permission.isLegacyFallback()) {
+      return ReadableApplications.ALL;
+    }
+
+    ReadableApplications readable = readableApplicationsByUser.getIfPresent(username);
+    if (readable == null || readable.permission != permission) {
+      readable = new ReadableApplications(permission);
+      readableApplicationsByUser.put(username, readable);
+    }
+    return readable;
+  }
+
+  /** Matches how {@link FiatPermissionEvaluator} determines the username of an authentication. */
+  private static String getUsername(Authentication authentication) {
+    String username = "anonymous";
+    if (authentication != null
+        && authentication.isAuthenticated()
+        && authentication.getPrincipal() != null) {
+      Object principal = authentication.getPrincipal();
+      if (principal instanceof UserDetails) {
+        username = ((UserDetails) principal).getUsername();
+      } else if (!principal.toString().isEmpty()) {
+        username = principal.toString();
+      }
+    }
+    return username;
+  }
+
+  public static class ReadableApplications {
+    public static final ReadableApplications ALL = new ReadableApplications(true);
+    public static final ReadableApplications NONE = new ReadableApplications(false);
+
+    private final UserPermission.View permission;
+    private final boolean readAll;
+    private final boolean allowAccessToUnknownApplications;
+
+    /** Lower-cased names of the applications the permission grants READ on. */
+    private final Set<String> readable;
+
+    /** Lower-cased names of every application the permission knows about. */
+    private final Set<String> known;
+
+    private ReadableApplications(boolean readAll) {
+      this.permission = null;
+      this.readAll = readAll;
+      this.allowAccessToUnknownApplications = false;
+      this.readable = Set.of();
+      this.known = Set.of();
+    }
+
+    private ReadableApplications(UserPermission.View permission) {
+      this.permission = permission;
+      this.readAll = false;
+      this.allowAccessToUnknownApplications = permission.isAllowAccessToUnknownApplications();
+      this.readable = new HashSet<>();
+      this.known = new HashSet<>();
+      for (Application.View application : permission.getApplications()) {
+        String name = application.getName().toLowerCase(Locale.ROOT);
+        known.add(name);
+        if (application.getAuthorizations().contains(Authorization.READ)) {
+          readable.add(name);
+        }
+      }
+    }
+
+    /** @return true if every application is readable, regardless of its name */
+    public boolean canReadAll() {
+      return readAll;
+    }
+
+    /** @param name an application name, compared case-insensitively */
+    public boolean canRead(String name) {
+      if (readAll) {
+        return true;
+      }
+      if (name == null) {
+        return false;
+      }
+
+      String lowerCaseName = name.toLowerCase(Locale.ROOT);
+      return readable.contains(lowerCaseName)
+          || (allowAccessToUnknownApplications && !known.contains(lowerCaseName));
+    }
+  }
+}
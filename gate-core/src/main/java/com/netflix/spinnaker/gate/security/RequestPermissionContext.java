@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.fiat.model.UserPermission;
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
+import org.springframework.stereotype.Component;
+
+/**
+ * The Fiat permission of the user making the current request.
+ *
+ * <p>{@code FiatSessionFilter} looks the permission up once per request and scopes it to the
+ * request thread, so that later consumers in the same request ({@link AllowedAccountsSupport},
+ * {@code PermissionService}) reuse it rather than going back to the {@link
+ * FiatPermissionEvaluator}. Lookups for other users, or from threads outside of the request, fall
+ * through to the evaluator. The number of evaluator lookups saved is counted under {@code
+ * fiat.permission.requestContext.lookupsSaved}.
+ */
+@Component
+public class RequestPermissionContext {
+  private final ThreadLocal<ScopedPermission> current = new ThreadLocal<>();
+
+  private final Counter lookupsSaved;
+
+  public RequestPermissionContext(Registry registry) {
+    this.lookupsSaved = registry.counter("fiat.permission.requestContext.lookupsSaved");
+  }
+
+  /** Scope {@code permission} to the current request, until {@link #clear()} is called. */
+  public void set(String username, UserPermission.View permission) {
+    current.set(new ScopedPermission(username, permission));
+  }
+
+  public void clear() {
+    current.remove();
+  }
+
+  /** Forget the scoped permission if it belongs to {@code username}, ie. after a (re)login. */
+  public void invalidate(String username) {
+    ScopedPermission scoped = current.get();
+    if (scoped != null && scoped.username.equals(username)) {
+      current.remove();
+    }
+  }
+
+  /**
+   * @return the permission scoped to the current request if it belongs to {@code username},
+   *     otherwise the permission from {@code permissionEvaluator}
+   */
+  public UserPermission.View getPermission(
+      String username, FiatPermissionEvaluator permissionEvaluator) {
+    ScopedPermission scoped = current.get();
+    if (scoped != null && scoped.username.equals(username)) {
+      lookupsSaved.increment();
+      return scoped.permission;
+    }
+    return permissionEvaluator.getPermission(username);
+  }
+
+  private static class ScopedPermission {
+    final String username;
+    final UserPermission.View permission;
+
+    ScopedPermission(String username, UserPermission.View permission) {
+      this.username = username;
+      this.permission = permission;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services;
+
+import com.netflix.spinnaker.fiat.model.Authorization;
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * An immutable, pre-indexed view of a list of accounts.
+ *
+ * <p>Accounts are indexed by name (for provider lookups) and by lower-cased WRITE role, so that
+ * finding the accounts available to a set of roles is a handful of bitset unions rather than a scan
+ * over every account's permissions.
+ *
+ * <p>The index retains the list it was built from, which must not be modified afterwards.
+ */
+public final class AccountIndex {
+  static final AccountIndex EMPTY = of(List.of());
+
+  private final List<ClouddriverService.AccountDetails> accounts;
+  private final Map<String, ClouddriverService.AccountDetails> accountsByName;
+
+  /** Accounts without any permissions, available to everyone. */
+  private final BitSet unrestricted;
+
+  private final Map<String, BitSet> accountsByWriteRole;
+
+  private AccountIndex(
+      List<ClouddriverService.AccountDetails> accounts,
+      Map<String, ClouddriverService.AccountDetails> accountsByName,
+      BitSet unrestricted,
+      Map<String, BitSet> accountsByWriteRole) {
+    this.accounts = accounts;
+    this.accountsByName = accountsByName;
+    this.unrestricted = unrestricted;
+    this.accountsByWriteRole = accountsByWriteRole;
+  }
+
+  public static AccountIndex of(List<ClouddriverService.AccountDetails> accounts) {
+    Map<String, ClouddriverService.AccountDetails> accountsByName = new HashMap<>();
+    BitSet unrestricted = new BitSet(accounts.size());
+    Map<String, BitSet> accountsByWriteRole = new HashMap<>();
+
+    for (int i = 0; i < accounts.size(); i++) {
+      ClouddriverService.AccountDetails account = accounts.get(i);
+      if (account.getName() != null) {
+        accountsByName.putIfAbsent(account.getName(), account);
+      }
+
+      Map<String, Collection<String>> permissions = account.getPermissions();
+      if (CollectionUtils.isEmpty(permissions)) {
+        unrestricted.set(i);
+        continue;
+      }
+
+      Collection<String> writeRoles = permissions.get(Authorization.WRITE.name());
+      if (writeRoles == null) {
+        continue;
+      }
+      for (String role : writeRoles) {
+        if (role != null) {
+          accountsByWriteRole
+              .computeIfAbsent(role.toLowerCase(Locale.ROOT), r -> new BitSet(accounts.size()))
+              .set(i);
+        }
+      }
+    }
+
+    return new AccountIndex(
+        accounts,
+        Collections.unmodifiableMap(accountsByName),
+        unrestricted,
+        Collections.unmodifiableMap(accountsByWriteRole));
+  }
+
+  public List<ClouddriverService.AccountDetails> getAccounts() {
+    return accounts;
+  }
+
+  /** @return the first account with the given name, or null if there is none */
+  @Nullable
+  public ClouddriverService.AccountDetails getAccount(String accountName) {
+    return accountName != null ? accountsByName.get(accountName) : null;
+  }
+
+  /** @return the type of the first account with the given name, or null if there is none */
+  @Nullable
+  public String getType(String accountName) {
+    ClouddriverService.AccountDetails account = getAccount(accountName);
+    return account != null ? account.getType() : null;
+  }
+
+  /**
+   * @return the accounts that are either unrestricted or grant WRITE to at least one of {@code
+   *     userRoles} (compared case-insensitively), in their original order
+   */
+  public List<ClouddriverService.AccountDetails> getAccountsForRoles(
+      @Nullable Collection<String> userRoles) {
+    BitSet permitted = (BitSet) unrestricted.clone();
+    if (userRoles != null) {
+      for (String role : userRoles) {
+        if (role == null) {
+          continue;
+        }
+        BitSet roleAccounts = accountsByWriteRole.get(role.toLowerCase(Locale.ROOT));
+        if (roleAccounts != null) {
+          permitted.or(roleAccounts);
+        }
+      }
+    }
+
+    if (permitted.cardinality() == accounts.size()) {
+      return accounts;
+    }
+    List<ClouddriverService.AccountDetails> result = new ArrayList<>(permitted.cardinality());
+    for (int i = permitted.nextSetBit(0); i >= 0; i = permitted.nextSetBit(i + 1)) {
+      result.add(accounts.get(i));
+    }
+    return result;
+  }
+}
@@ -18,7 +18,27 @@ package com.netflix.spinnaker.gate.services;
 
 import com.netflix.spinnaker.gate.services.internal.ClouddriverService;
 import java.util.List;
+import javax.annotation.Nullable;
 
 public interface AccountLookupService {
   List<ClouddriverService.AccountDetails> getAccounts();
+
+  /** @return the (cached) details of the account with the given name, or null if unknown */
+  @Nullable
+  default ClouddriverService.AccountDetails getAccount(String name) {
+    for (ClouddriverService.AccountDetails account : getAccounts()) {
+      if (account.getName() != null && account.getName().equals(name)) {
+        return account;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return an index of {@link #getAccounts()}, implementations that cache their accounts should
+   *     index them once per refresh rather than on every call
+   */
+  default AccountIndex getAccountIndex() {
+    return AccountIndex.of(getAccounts());
+  }
 }
@@ -20,6 +20,8 @@ package com.netflix.spinnaker.gate.services;
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
 import com.netflix.spinnaker.fiat.shared.FiatService;
 import com.netflix.spinnaker.fiat.shared.FiatStatus;
+import com.netflix.spinnaker.gate.security.AllowedAccountsSupport;
+import com.netflix.spinnaker.gate.security.RequestPermissionContext;
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall;
 import com.netflix.spinnaker.security.AuthenticatedRequest;
 import io.micrometer.core.annotation.Counted;
@@ -48,6 +50,15 @@ public class AuthenticationService {
       onMethod_ = {@Autowired(required = false)})
   private FiatService fiatLoginService;
 
+  @Setter(onMethod_ = {@Autowired(required = false)})
+  private AllowedAccountsSupport allowedAccountsSupport;
+
+  @Setter(onMethod_ = {@Autowired(required = false)})
+  private FiatLoginCoordinator loginCoordinator;
+
+  @Setter(onMethod_ = {@Autowired(required = false)})
+  private RequestPermissionContext requestPermissionContext;
+
   private FiatService getFiatServiceForLogin() {
     return fiatLoginService != null ? fiatLoginService : fiatService;
   }
@@ -58,11 +69,14 @@ public class AuthenticationService {
       return Set.of();
     }
 
-    return AuthenticatedRequest.allowAnonymous(
+    coordinateLogin(
+        userid,
+        null,
         () -> {
           Retrofit2SyncCall.execute(getFiatServiceForLogin().loginUser(userid));
-          return resolveAuthorities(userid);
+          invalidatePermission(userid);
         });
+    return AuthenticatedRequest.allowAnonymous(() -> resolveAuthorities(userid));
   }
 
   @Counted("fiat.login")
@@ -72,11 +86,14 @@ public class AuthenticationService {
       return Set.of();
     }
 
-    return AuthenticatedRequest.allowAnonymous(
+    coordinateLogin(
+        userid,
+        roles,
         () -> {
           Retrofit2SyncCall.execute(getFiatServiceForLogin().loginWithRoles(userid, roles));
-          return resolveAuthorities(userid);
+          invalidatePermission(userid);
         });
+    return AuthenticatedRequest.allowAnonymous(() -> resolveAuthorities(userid));
   }
 
   @Counted("fiat.logout")
@@ -86,11 +103,28 @@ public class AuthenticationService {
     }
 
     Retrofit2SyncCall.execute(getFiatServiceForLogin().logoutUser(userid));
-    permissionEvaluator.invalidatePermission(userid);
+    if (loginCoordinator != null) {
+      loginCoordinator.invalidate(userid);
+    }
+    invalidatePermission(userid);
+  }
+
+  private void coordinateLogin(String userid, Collection<String> roles, Runnable fiatLogin) {
+    Runnable anonymousLogin =
+        () ->
+            AuthenticatedRequest.allowAnonymous(
+                () -> {
+                  fiatLogin.run();
+                  return null;
+                });
+    if (loginCoordinator != null) {
+      loginCoordinator.login(userid, roles, anonymousLogin);
+    } else {
+      anonymousLogin.run();
+    }
   }
 
   private Collection<? extends GrantedAuthority> resolveAuthorities(String userid) {
-    permissionEvaluator.invalidatePermission(userid);
     var permission = permissionEvaluator.getPermission(userid);
     if (permission == null) {
       throw new UsernameNotFoundException(
@@ -98,4 +132,14 @@ public class AuthenticationService {
     }
     return permission.toGrantedAuthorities();
   }
+
+  private void invalidatePermission(String userid) {
+    permissionEvaluator.invalidatePermission(userid);
+    if (requestPermissionContext != null) {
+      requestPermissionContext.invalidate(userid);
+    }
+    if (allowedAccountsSupport != null) {
+      allowedAccountsSupport.invalidate(userid);
+    }
+  }
 }
@@ -17,22 +17,15 @@
 
 package com.netflix.spinnaker.gate.services;
 
-import com.netflix.spinnaker.fiat.model.Authorization;
 import com.netflix.spinnaker.fiat.shared.FiatStatus;
 import com.netflix.spinnaker.gate.services.internal.ClouddriverService;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 @Log4j2
 @Service
@@ -57,30 +50,9 @@ public class CredentialsService {
   /** Returns all account names that a user with the specified list of userRoles has access to. */
   List<ClouddriverService.AccountDetails> getAccounts(
       @Nullable Collection<String> userRoles, boolean ignoreFiatStatus) {
-    Set<String> userRolesLower =
-        userRoles == null
-            ? Set.of()
-            : userRoles.stream()
-                .filter(Objects::nonNull)
-                .map(role -> role.toLowerCase(Locale.ROOT))
-                .collect(Collectors.toSet());
-    return accountLookupService.getAccounts().stream()
-        .filter(
-            account -> {
-              if (!ignoreFiatStatus && fiatStatus.isEnabled()) {
-                return true; // Returned list is filtered later.
-              }
-
-              Map<String, Collection<String>> permissions = account.getPermissions();
-              if (CollectionUtils.isEmpty(permissions)) {
-                return true;
-              }
-              Set<String> permittedRoles =
-                  permissions.getOrDefault(Authorization.WRITE.name(), Set.of()).stream()
-                      .map(role -> role.toLowerCase(Locale.ROOT))
-                      .collect(Collectors.toSet());
-              return !Collections.disjoint(userRolesLower, permittedRoles);
-            })
-        .collect(Collectors.toList());
+    if (!ignoreFiatStatus && fiatStatus.isEnabled()) {
+      return accountLookupService.getAccounts(); // Returned list is filtered later.
+    }
+    return accountLookupService.getAccountIndex().getAccountsForRoles(userRoles);
   }
 }
@@ -42,12 +42,12 @@ public class DefaultProviderLookupService implements ProviderLookupService, Acco
   private static final String FALLBACK = "unknown";
   private final ClouddriverService clouddriverService;
 
-  private volatile List<ClouddriverService.AccountDetails> accountsCache = List.of();
+  private volatile AccountIndex accountsCache = AccountIndex.EMPTY;
 
   @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.SECONDS)
   void refreshCache() {
     try {
-      accountsCache = loadAccounts();
+      accountsCache = AccountIndex.of(loadAccounts());
     } catch (Exception e) {
       log.error("Unable to refresh account details cache", e);
     }
@@ -98,15 +98,22 @@ public class DefaultProviderLookupService implements ProviderLookupService, Acco
 
   @Override
   public String providerForAccount(String account) {
-    return accountsCache.stream()
-        .filter(it -> account.equals(it.getName()))
-        .map(ClouddriverService.Account::getType)
-        .findFirst()
-        .orElse(FALLBACK);
+    String type = accountsCache.getType(account);
+    return type != null ? type : FALLBACK;
   }
 
   @Override
   public List<ClouddriverService.AccountDetails> getAccounts() {
+    return accountsCache.getAccounts();
+  }
+
+  @Override
+  public ClouddriverService.AccountDetails getAccount(String name) {
+    return accountsCache.getAccount(name);
+  }
+
+  @Override
+  public AccountIndex getAccountIndex() {
     return accountsCache;
   }
 
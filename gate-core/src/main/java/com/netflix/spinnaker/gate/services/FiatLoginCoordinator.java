@@ -0,0 +1,267 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coordinates Fiat logins from every authentication provider, see {@link PermissionService} and
+ * {@link AuthenticationService}.
+ *
+ * <ul>
+ *   <li>Concurrent logins for the same user (and role set) share a single Fiat call.
+ *   <li>A login with an explicit role set is skipped when the user last synced the same role set
+ *       less than {@code services.fiat.login-coordinator.unchanged-roles-window-ms} ago and their
+ *       permission is still cached, since Fiat would end up with the permission it already has.
+ *       Plain logins (without roles) are never skipped, as Fiat resolves their roles itself and
+ *       those may have changed.
+ *   <li>With {@code services.fiat.login-coordinator.async-when-cached} enabled, a login for a user
+ *       whose permission is still cached completes on a background thread instead of blocking the
+ *       request. At most {@code services.fiat.login-coordinator.async-queue-capacity} such logins
+ *       are queued, beyond which logins complete synchronously again.
+ * </ul>
+ */
+@Log4j2
+@Component
+public class FiatLoginCoordinator {
+  private final FiatPermissionEvaluator permissionEvaluator;
+  private final Clock clock;
+  private final long unchangedRolesWindowMs;
+  private final boolean asyncWhenCached;
+  private final Executor asyncExecutor;
+
+  private final ConcurrentMap<LoginKey, CompletableFuture<Void>> inFlight =
+      new ConcurrentHashMap<>();
+  private final Cache<String, LastSync> lastSyncs;
+
+  private final Counter synchronous;
+  private final Counter asynchronous;
+  private final Counter coalesced;
+  private final Counter skipped;
+  private final Counter failures;
+
+  @Autowired
+  public FiatLoginCoordinator(
+      FiatPermissionEvaluator permissionEvaluator,
+      Registry registry,
+      @Value("${services.fiat.login-coordinator.unchanged-roles-window-ms:300000}")
+          long unchangedRolesWindowMs,
+      @Value("${services.fiat.login-coordinator.async-when-cached:false}")
+          boolean asyncWhenCached,
+      @Value("${services.fiat.login-coordinator.async-queue-capacity:1000}")
+          int asyncQueueCapacity) {
+    this(
+        permissionEvaluator,
+        registry,
+        unchangedRolesWindowMs,
+        asyncWhenCached,
+        Clock.systemUTC(),
+        newAsyncExecutor(asyncQueueCapacity));
+  }
+
+  FiatLoginCoordinator(
+      FiatPermissionEvaluator permissionEvaluator,
+      Registry registry,
+      long unchangedRolesWindowMs,
+      boolean asyncWhenCached,
+      Clock clock,
+      Executor asyncExecutor) {
+    this.permissionEvaluator = permissionEvaluator;
+    this.clock = clock;
+    this.unchangedRolesWindowMs = unchangedRolesWindowMs;
+    this.asyncWhenCached = asyncWhenCached;
+    this.asyncExecutor = asyncExecutor;
+    this.lastSyncs =
+        Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Math.max(unchangedRolesWindowMs, 1), TimeUnit.MILLISECONDS)
+            .build();
+
+    this.synchronous = registry.counter("fiat.login.coordinator", "result", "synchronous");
+    this.asynchronous = registry.counter("fiat.login.coordinator", "result", "asynchronous");
+    this.coalesced = registry.counter("fiat.login.coordinator", "result", "coalesced");
+    this.skipped = registry.counter("fiat.login.coordinator", "result", "skipped");
+    this.failures = registry.counter("fiat.login.coordinator.failures");
+  }
+
+  /**
+   * Log {@code userId} in to Fiat by running {@code fiatLogin}, unless an equivalent login is
+   * already in flight or unnecessary.
+   *
+   * @param roles the roles the user is being logged in with, or null for a plain login
+   * @param fiatLogin performs the Fiat call (and invalidates any locally cached permission)
+   */
+  public void login(String userId, Collection<String> roles, Runnable fiatLogin) {
+    LoginKey key = new LoginKey(userId, roles == null ? null : new HashSet<>(roles));
+
+    if (isUnchanged(key)) {
+      skipped.increment();
+      return;
+    }
+
+    if (asyncWhenCached && permissionEvaluator.hasCachedPermission(userId)) {
+      coordinate(key, fiatLogin, true);
+      return;
+    }
+
+    try {
+      coordinate(key, fiatLogin, false).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  /** Forget the last sync for {@code userId}, so that their next login goes to Fiat. */
+  public void invalidate(String userId) {
+    lastSyncs.invalidate(userId);
+  }
+
+  private boolean isUnchanged(LoginKey key) {
+    if (unchangedRolesWindowMs <= 0 || key.roles == null) {
+      return false;
+    }
+
+    LastSync lastSync = lastSyncs.getIfPresent(key.userId);
+    return lastSync != null
+        && Objects.equals(lastSync.roles, key.roles)
+        && clock.millis() - lastSync.syncedAt < unchangedRolesWindowMs
+        && permissionEvaluator.hasCachedPermission(key.userId);
+  }
+
+  /**
+   * Start a login for {@code key}, or join the one already in flight.
+   *
+   * <p>An asynchronous login that the executor rejects (ie. its queue is full) runs on the calling
+   * thread instead; it is counted as synchronous but, as nobody waits on it, failures are only
+   * logged.
+   */
+  private CompletableFuture<Void> coordinate(LoginKey key, Runnable fiatLogin, boolean async) {
+    CompletableFuture<Void> login = new CompletableFuture<>();
+    CompletableFuture<Void> existing = inFlight.putIfAbsent(key, login);
+    if (existing != null) {
+      coalesced.increment();
+      return existing;
+    }
+
+    Runnable task =
+        () -> {
+          try {
+            fiatLogin.run();
+            lastSyncs.put(key.userId, new LastSync(key.roles, clock.millis()));
+            login.complete(null);
+          } catch (Throwable t) {
+            failures.increment();
+            if (async) {
+              log.warn("Asynchronous Fiat login failed for user {}", key.userId, t);
+            }
+            login.completeExceptionally(t);
+          } finally {
+            inFlight.remove(key, login);
+          }
+        };
+
+    if (async) {
+      try {
+        asyncExecutor.execute(task);
+        asynchronous.increment();
+        return login;
+      } catch (RejectedExecutionException e) {
+        log.debug("Asynchronous Fiat logins are backed up, logging in {} inline", key.userId);
+      }
+    }
+
+    synchronous.increment();
+    task.run();
+    return login;
+  }
+
+  private static Executor newAsyncExecutor(int queueCapacity) {
+    return new ThreadPoolExecutor(
+        2,
+        2,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+        runnable -> {
+          Thread thread = new Thread(runnable, "fiat-login-coordinator");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  private static class LoginKey {
+    final String userId;
+    final Set<String> roles;
+
+    LoginKey(String userId, Set<String> roles) {
+      this.userId = userId;
+      this.roles = roles;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof LoginKey)) {
+        return false;
+      }
+      LoginKey other = (LoginKey) o;
+      return userId.equals(other.userId) && Objects.equals(roles, other.roles);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, roles);
+    }
+  }
+
+  private static class LastSync {
+    final Set<String> roles;
+    final long syncedAt;
+
+    LastSync(Set<String> roles, long syncedAt) {
+      this.roles = roles;
+      this.syncedAt = syncedAt;
+    }
+  }
+}
@@ -24,6 +24,8 @@ import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
 import com.netflix.spinnaker.fiat.shared.FiatService;
 import com.netflix.spinnaker.fiat.shared.FiatStatus;
 import com.netflix.spinnaker.gate.retrofit.UpstreamBadRequest;
+import com.netflix.spinnaker.gate.security.AllowedAccountsSupport;
+import com.netflix.spinnaker.gate.security.RequestPermissionContext;
 import com.netflix.spinnaker.gate.security.SpinnakerUser;
 import com.netflix.spinnaker.gate.services.internal.ExtendedFiatService;
 import com.netflix.spinnaker.kork.core.RetrySupport;
@@ -66,6 +68,15 @@ public class PermissionService {
       onMethod_ = {@Autowired(required = false)})
   private FiatService fiatLoginService;
 
+  @Setter(onMethod_ = {@Autowired(required = false)})
+  private AllowedAccountsSupport allowedAccountsSupport;
+
+  @Setter(onMethod_ = {@Autowired(required = false)})
+  private FiatLoginCoordinator loginCoordinator;
+
+  @Setter(onMethod_ = {@Autowired(required = false)})
+  private RequestPermissionContext requestPermissionContext;
+
   public boolean isEnabled() {
     return fiatStatus.isEnabled();
   }
@@ -76,31 +87,50 @@ public class PermissionService {
 
   public void login(final String userId) {
     if (fiatStatus.isEnabled()) {
-      try {
-        AuthenticatedRequest.allowAnonymous(
-            () -> {
-              Retrofit2SyncCall.execute(getFiatServiceForLogin().loginUser(userId));
-              permissionEvaluator.invalidatePermission(userId);
-              return null;
-            });
-      } catch (SpinnakerServerException e) {
-        throw UpstreamBadRequest.classifyError(e);
-      }
+      coordinateLogin(
+          userId,
+          null,
+          () -> {
+            try {
+              AuthenticatedRequest.allowAnonymous(
+                  () -> {
+                    Retrofit2SyncCall.execute(getFiatServiceForLogin().loginUser(userId));
+                    invalidatePermission(userId);
+                    return null;
+                  });
+            } catch (SpinnakerServerException e) {
+              throw UpstreamBadRequest.classifyError(e);
+            }
+          });
     }
   }
 
   public void loginWithRoles(final String userId, final Collection<String> roles) {
     if (fiatStatus.isEnabled()) {
-      try {
-        AuthenticatedRequest.allowAnonymous(
-            () -> {
-              Retrofit2SyncCall.execute(getFiatServiceForLogin().loginWithRoles(userId, roles));
-              permissionEvaluator.invalidatePermission(userId);
-              return null;
-            });
-      } catch (SpinnakerServerException e) {
-        throw UpstreamBadRequest.classifyError(e);
-      }
+      coordinateLogin(
+          userId,
+          roles,
+          () -> {
+            try {
+              AuthenticatedRequest.allowAnonymous(
+                  () -> {
+                    Retrofit2SyncCall.execute(
+                        getFiatServiceForLogin().loginWithRoles(userId, roles));
+                    invalidatePermission(userId);
+                    return null;
+                  });
+            } catch (SpinnakerServerException e) {
+              throw UpstreamBadRequest.classifyError(e);
+            }
+          });
+    }
+  }
+
+  private void coordinateLogin(String userId, Collection<String> roles, Runnable fiatLogin) {
+    if (loginCoordinator != null) {
+      loginCoordinator.login(userId, roles, fiatLogin);
+    } else {
+      fiatLogin.run();
     }
   }
 
@@ -108,7 +138,10 @@ public class PermissionService {
     if (fiatStatus.isEnabled()) {
       try {
         Retrofit2SyncCall.execute(getFiatServiceForLogin().logoutUser(userId));
-        permissionEvaluator.invalidatePermission(userId);
+        if (loginCoordinator != null) {
+          loginCoordinator.invalidate(userId);
+        }
+        invalidatePermission(userId);
       } catch (SpinnakerServerException e) {
         throw UpstreamBadRequest.classifyError(e);
       }
@@ -130,7 +163,7 @@ public class PermissionService {
       return Set.of();
     }
     try {
-      var permission = permissionEvaluator.getPermission(userId);
+      var permission = getPermission(userId);
       var roles = permission != null ? permission.getRoles() : null;
       return roles != null ? roles : Set.of();
     } catch (SpinnakerServerException e) {
@@ -210,7 +243,7 @@ public class PermissionService {
     }
 
     try {
-      var permission = permissionEvaluator.getPermission(user.getUsername());
+      var permission = getPermission(user.getUsername());
       if (permission == null) {
         return List.of();
       }
@@ -223,7 +256,23 @@ public class PermissionService {
   }
 
   public boolean isAdmin(String userId) {
-    var permission = permissionEvaluator.getPermission(userId);
+    var permission = getPermission(userId);
     return permission != null && permission.isAdmin();
   }
+
+  private UserPermission.View getPermission(String userId) {
+    return requestPermissionContext != null
+        ? requestPermissionContext.getPermission(userId, permissionEvaluator)
+        : permissionEvaluator.getPermission(userId);
+  }
+
+  private void invalidatePermission(String userId) {
+    permissionEvaluator.invalidatePermission(userId);
+    if (requestPermissionContext != null) {
+      requestPermissionContext.invalidate(userId);
+    }
+    if (allowedAccountsSupport != null) {
+      allowedAccountsSupport.invalidate(userId);
+    }
+  }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.fiat.model.resources.ServiceAccount;
+import com.netflix.spinnaker.gate.services.internal.Front50Service;
+import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall;
+import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerServerException;
+import java.time.Clock;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * A periodically refreshed, case-insensitive set of the service account names known to Front50.
+ *
+ * <p>Authentication providers use this to recognise service accounts (which are already logged
+ * in to Fiat) without fetching every service account from Front50 on each login. Lookups that miss
+ * trigger a reload, since the account may have been created since the last refresh, but at most
+ * once every {@code services.front50.service-account-cache.min-reload-interval-ms} and with
+ * concurrent misses sharing a single reload (which is not made while holding any lock).
+ *
+ * <p>Names that are still not service accounts after a reload (ie. regular users) are remembered
+ * for {@code services.front50.service-account-cache.negative-ttl-ms}, so that their logins are
+ * answered from the cache rather than each triggering a reload.
+ *
+ * <p>Nothing is loaded until the first lookup, so deployments that never ask about service
+ * accounts do not pay for the background refresh.
+ */
+@Log4j2
+@Component
+public class ServiceAccountDirectory {
+  private final Front50Service front50Service;
+  private final Clock clock;
+  private final long minReloadIntervalMs;
+  private final Cache<String, Boolean> nonServiceAccounts;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter reloads;
+  private final Counter reloadFailures;
+
+  private volatile Snapshot snapshot;
+
+  /** Guarded by {@code this}, includes failed reloads so that Front50 is not hammered when down. */
+  private long lastReloadAttempt;
+
+  /** Guarded by {@code this}, the reload in flight (if any). */
+  private CompletableFuture<Snapshot> pendingReload;
+
+  @Autowired
+  public ServiceAccountDirectory(
+      Front50Service front50Service,
+      Registry registry,
+      @Value("${services.front50.service-account-cache.min-reload-interval-ms:5000}")
+          long minReloadIntervalMs,
+      @Value("${services.front50.service-account-cache.negative-ttl-ms:30000}")
+          long negativeTtlMs) {
+    this(front50Service, registry, minReloadIntervalMs, negativeTtlMs, Clock.systemUTC());
+  }
+
+  public ServiceAccountDirectory(Front50Service front50Service, Registry registry) {
+    this(front50Service, registry, 5000, 30000, Clock.systemUTC());
+  }
+
+  ServiceAccountDirectory(
+      Front50Service front50Service,
+      Registry registry,
+      long minReloadIntervalMs,
+      long negativeTtlMs,
+      Clock clock) {
+    this.front50Service = front50Service;
+    this.clock = clock;
+    this.minReloadIntervalMs = minReloadIntervalMs;
+    this.nonServiceAccounts =
+        Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Math.max(negativeTtlMs, 0), TimeUnit.MILLISECONDS)
+            .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+            .build();
+
+    this.hits = registry.counter("serviceAccounts.cache.hits");
+    this.misses = registry.counter("serviceAccounts.cache.misses");
+    this.reloads = registry.counter("serviceAccounts.cache.reloads");
+    this.reloadFailures = registry.counter("serviceAccounts.cache.reloadFailures");
+    registry.gauge(
+        "serviceAccounts.cache.staleness",
+        this,
+        directory -> {
+          Snapshot current = directory.snapshot;
+          return current == null ? 0 : clock.millis() - current.loadedAt;
+        });
+  }
+
+  /** @return whether {@code name} (compared case-insensitively) is a known service account */
+  public boolean isServiceAccount(String name) {
+    if (name == null) {
+      return false;
+    }
+
+    String normalizedName = name.toLowerCase(Locale.ROOT);
+    Snapshot current = snapshot;
+    if (current != null && current.names.contains(normalizedName)) {
+      hits.increment();
+      return true;
+    }
+
+    if (current != null && nonServiceAccounts.getIfPresent(normalizedName) != null) {
+      hits.increment();
+      return false;
+    }
+
+    misses.increment();
+    current = reload(current);
+    if (current == null) {
+      return false;
+    }
+    if (current.names.contains(normalizedName)) {
+      return true;
+    }
+    nonServiceAccounts.put(normalizedName, Boolean.TRUE);
+    return false;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${services.front50.service-account-cache.refresh-interval-ms:30000}")
+  void refresh() {
+    Snapshot current = snapshot;
+    if (current != null) {
+      reload(current);
+    }
+  }
+
+  /**
+   * Reload unless another thread has already done so since {@code observed} was read, or {@code
+   * observed} is too recent to be worth reloading, or wait for the reload already in flight.
+   */
+  private Snapshot reload(Snapshot observed) {
+    CompletableFuture<Snapshot> reload;
+    boolean owner = false;
+    synchronized (this) {
+      if (pendingReload != null) {
+        reload = pendingReload;
+      } else {
+        Snapshot current = snapshot;
+        long now = clock.millis();
+        if (current != observed
+            || (lastReloadAttempt != 0 && now - lastReloadAttempt < minReloadIntervalMs)) {
+          return current;
+        }
+
+        lastReloadAttempt = now;
+        reload = new CompletableFuture<>();
+        pendingReload = reload;
+        owner = true;
+      }
+    }
+    if (!owner) {
+      return reload.join();
+    }
+
+    try {
+      List<ServiceAccount> serviceAccounts =
+          Retrofit2SyncCall.execute(front50Service.getServiceAccounts());
+      Set<String> names =
+          serviceAccounts == null
+              ? Set.of()
+              : serviceAccounts.stream()
+                  .map(ServiceAccount::getName)
+                  .filter(Objects::nonNull)
+                  .map(it -> it.toLowerCase(Locale.ROOT))
+                  .collect(Collectors.toUnmodifiableSet());
+      snapshot = new Snapshot(names, clock.millis());
+      reloads.increment();
+    } catch (SpinnakerServerException e) {
+      reloadFailures.increment();
+      log.warn("Could not get list of service accounts.", e);
+    } finally {
+      synchronized (this) {
+        pendingReload = null;
+      }
+      reload.complete(snapshot);
+    }
+    return snapshot;
+  }
+
+  private static class Snapshot {
+    private final Set<String> names;
+    private final long loadedAt;
+
+    Snapshot(Set<String> names, long loadedAt) {
+      this.names = names;
+      this.loadedAt = loadedAt;
+    }
+  }
+}
@@ -246,6 +246,17 @@ public interface ClouddriverService {
       @Query("page") Integer offset,
       @QueryMap Map<String, String> filters);
 
+  @Streaming
+  @Headers("Accept: application/json")
+  @GET("/search")
+  Call<ResponseBody> searchStream(
+      @Query("q") String query,
+      @Query("type") String type,
+      @Query("platform") String platform,
+      @Query("pageSize") Integer size,
+      @Query("page") Integer offset,
+      @QueryMap Map<String, String> filters);
+
   @GET("/securityGroups")
   Call<Map> getSecurityGroups();
 
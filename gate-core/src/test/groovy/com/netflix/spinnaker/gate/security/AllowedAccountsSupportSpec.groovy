@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security
+
+import com.netflix.spinnaker.fiat.model.Authorization
+import com.netflix.spinnaker.fiat.model.UserPermission
+import com.netflix.spinnaker.fiat.model.resources.Account
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
+import com.netflix.spinnaker.fiat.shared.FiatStatus
+import com.netflix.spinnaker.gate.services.CredentialsService
+import spock.lang.Specification
+import spock.lang.Subject
+
+class AllowedAccountsSupportSpec extends Specification {
+  def fiatStatus = Stub(FiatStatus) {
+    isEnabled() >> true
+  }
+  def fiatPermissionEvaluator = Mock(FiatPermissionEvaluator)
+  def credentialsService = Mock(CredentialsService)
+
+  @Subject
+  def allowedAccountsSupport = new AllowedAccountsSupport(fiatStatus, fiatPermissionEvaluator, credentialsService)
+
+  def "should reuse allowed accounts until the fiat permission changes"() {
+    given:
+    def permission = permission(prod: [Authorization.READ, Authorization.WRITE], test: [Authorization.READ])
+    def updatedPermission = permission(prod: [Authorization.READ, Authorization.WRITE], test: [Authorization.WRITE])
+
+    when:
+    def first = allowedAccountsSupport.filterAllowedAccounts("user", [])
+    def second = allowedAccountsSupport.filterAllowedAccounts("user", [])
+
+    then:
+    2 * fiatPermissionEvaluator.getPermission("user") >> permission
+    first == ["prod"] as Set
+    second.is(first)
+
+    when:
+    def third = allowedAccountsSupport.filterAllowedAccounts("user", [])
+
+    then:
+    1 * fiatPermissionEvaluator.getPermission("user") >> updatedPermission
+    third == ["prod", "test"] as Set
+    0 * credentialsService._
+  }
+
+  def "should recompute allowed accounts once invalidated"() {
+    given:
+    def permission = permission(prod: [Authorization.WRITE])
+    fiatPermissionEvaluator.getPermission("user") >> permission
+
+    when:
+    def first = allowedAccountsSupport.filterAllowedAccounts("user", [])
+    allowedAccountsSupport.invalidate("user")
+    def second = allowedAccountsSupport.filterAllowedAccounts("user", [])
+
+    then:
+    first == second
+    !second.is(first)
+  }
+
+  private UserPermission.View permission(Map<String, List<Authorization>> accounts) {
+    Set<Account.View> accountViews = accounts.collect { name, authorizations ->
+      Stub(Account.View) {
+        getName() >> name
+        getAuthorizations() >> (authorizations as Set)
+      }
+    } as Set
+    return Stub(UserPermission.View) {
+      getAccounts() >> accountViews
+    }
+  }
+}
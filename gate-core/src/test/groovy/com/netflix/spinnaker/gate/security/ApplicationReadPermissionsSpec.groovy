@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security
+
+import com.netflix.spinnaker.fiat.model.Authorization
+import com.netflix.spinnaker.fiat.model.UserPermission
+import com.netflix.spinnaker.fiat.model.resources.Application
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
+import com.netflix.spinnaker.fiat.shared.FiatStatus
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+class ApplicationReadPermissionsSpec extends Specification {
+  def fiatStatus = Stub(FiatStatus) {
+    isEnabled() >> true
+  }
+  def fiatPermissionEvaluator = Mock(FiatPermissionEvaluator)
+
+  @Subject
+  def applicationReadPermissions = new ApplicationReadPermissions(fiatStatus, fiatPermissionEvaluator)
+
+  @Unroll
+  def "should resolve READ on '#application' as #expected (allowAccessToUnknownApplications: #allowUnknown)"() {
+    given:
+    fiatPermissionEvaluator.getPermission("user") >> permission(
+      allowUnknown,
+      [app: [Authorization.READ, Authorization.WRITE], writeonly: [Authorization.WRITE]]
+    )
+
+    expect:
+    applicationReadPermissions.forUser("user").canRead(application) == expected
+
+    where:
+    application | allowUnknown || expected
+    "app"       | false        || true
+    "APP"       | false        || true
+    "writeonly" | false        || false
+    "unknown"   | false        || false
+    "writeonly" | true         || false
+    "unknown"   | true         || true
+    null        | true         || false
+  }
+
+  def "should allow everything for admins and when fiat is disabled, and nothing without a permission"() {
+    given:
+    def admin = Stub(UserPermission.View) {
+      isAdmin() >> true
+    }
+
+    when:
+    def forAdmin = applicationReadPermissions.forUser("admin")
+    def forUnknownUser = applicationReadPermissions.forUser("nobody")
+
+    then:
+    1 * fiatPermissionEvaluator.getPermission("admin") >> admin
+    1 * fiatPermissionEvaluator.getPermission("nobody") >> null
+    forAdmin.canRead("anything")
+    !forUnknownUser.canRead("anything")
+
+    when:
+    def fiatDisabled = new ApplicationReadPermissions(Stub(FiatStatus), fiatPermissionEvaluator)
+
+    then:
+    fiatDisabled.forCurrentUser().canRead("anything")
+    0 * fiatPermissionEvaluator._
+  }
+
+  def "should reuse readable applications until the fiat permission changes"() {
+    given:
+    def permission = permission(false, [app: [Authorization.READ]])
+    def updatedPermission = permission(false, [app: [Authorization.WRITE]])
+
+    when:
+    def first = applicationReadPermissions.forUser("user")
+    def second = applicationReadPermissions.forUser("user")
+
+    then:
+    2 * fiatPermissionEvaluator.getPermission("user") >> permission
+    second.is(first)
+    first.canRead("app")
+
+    when:
+    def third = applicationReadPermissions.forUser("user")
+
+    then:
+    1 * fiatPermissionEvaluator.getPermission("user") >> updatedPermission
+    !third.canRead("app")
+  }
+
+  private UserPermission.View permission(boolean allowUnknown,
+                                         Map<String, List<Authorization>> applications) {
+    Set<Application.View> applicationViews = applications.collect { name, authorizations ->
+      Stub(Application.View) {
+        getName() >> name
+        getAuthorizations() >> (authorizations as Set)
+      }
+    } as Set
+    return Stub(UserPermission.View) {
+      isAllowAccessToUnknownApplications() >> allowUnknown
+      getApplications() >> applicationViews
+    }
+  }
+}
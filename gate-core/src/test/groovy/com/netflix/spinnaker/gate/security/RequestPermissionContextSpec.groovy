@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security
+
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.fiat.model.UserPermission
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
+import com.netflix.spinnaker.fiat.shared.FiatStatus
+import com.netflix.spinnaker.gate.filters.FiatSessionFilter
+import com.netflix.spinnaker.gate.services.CredentialsService
+import com.netflix.spinnaker.security.AuthenticatedRequest
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+import spock.lang.Subject
+
+import javax.servlet.FilterChain
+
+class RequestPermissionContextSpec extends Specification {
+  def registry = new DefaultRegistry()
+  def fiatStatus = Stub(FiatStatus) {
+    isEnabled() >> true
+  }
+  def fiatPermissionEvaluator = Mock(FiatPermissionEvaluator)
+
+  @Subject
+  def requestPermissionContext = new RequestPermissionContext(registry)
+
+  def "should reuse the permission looked up by the fiat session filter for the rest of the request"() {
+    given:
+    def permission = new UserPermission(id: "user").view
+    def allowedAccountsSupport = new AllowedAccountsSupport(fiatStatus, fiatPermissionEvaluator, Mock(CredentialsService))
+    allowedAccountsSupport.requestPermissionContext = requestPermissionContext
+    def filter = new FiatSessionFilter(fiatStatus, fiatPermissionEvaluator, requestPermissionContext)
+    def chain = Mock(FilterChain) {
+      doFilter(_, _) >> {
+        allowedAccountsSupport.filterAllowedAccounts("user", [])
+        assert requestPermissionContext.getPermission("user", fiatPermissionEvaluator).is(permission)
+        requestPermissionContext.getPermission("other", fiatPermissionEvaluator)
+      }
+    }
+
+    when:
+    AuthenticatedRequest.setUser("user")
+    filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain)
+
+    then:
+    1 * fiatPermissionEvaluator.getPermission("user") >> permission
+    1 * fiatPermissionEvaluator.getPermission("other")
+    registry.counter("fiat.permission.requestContext.lookupsSaved").count() == 2
+
+    when: "outside of the request"
+    requestPermissionContext.getPermission("user", fiatPermissionEvaluator)
+
+    then:
+    1 * fiatPermissionEvaluator.getPermission("user") >> permission
+
+    cleanup:
+    AuthenticatedRequest.clear()
+  }
+
+  def "should forget the scoped permission when it is invalidated"() {
+    given:
+    requestPermissionContext.set("user", new UserPermission(id: "user").view)
+
+    when:
+    requestPermissionContext.invalidate("other")
+    requestPermissionContext.getPermission("user", fiatPermissionEvaluator)
+
+    then:
+    0 * fiatPermissionEvaluator.getPermission("user")
+
+    when:
+    requestPermissionContext.invalidate("user")
+    requestPermissionContext.getPermission("user", fiatPermissionEvaluator)
+
+    then:
+    1 * fiatPermissionEvaluator.getPermission("user")
+
+    cleanup:
+    requestPermissionContext.clear()
+  }
+}
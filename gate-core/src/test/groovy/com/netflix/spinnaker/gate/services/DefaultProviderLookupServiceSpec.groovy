@@ -38,4 +38,38 @@ class DefaultProviderLookupServiceSpec extends Specification {
     [WRITE: ['bacon-spinnaker']] | ['mgmt-spinnaker']           | [WRITE: ['bacon-spinnaker']]
     [WRITE: ['BACON-spinnaker']] | ['mgmt-spinnaker']           | [WRITE: ['bacon-spinnaker']]
   }
+
+  def "it should look up the provider of an account from the refreshed snapshot"() {
+    when:
+    defaultProviderLookupService.refreshCache()
+
+    then:
+    1 * clouddriverService.getAccountDetails() >> {
+      Calls.response([
+        new ClouddriverService.AccountDetails(name: 'prod', type: 'aws'),
+        new ClouddriverService.AccountDetails(name: 'test', type: 'kubernetes'),
+        new ClouddriverService.AccountDetails(name: 'prod', type: 'gce')
+      ])
+    }
+
+    expect:
+    defaultProviderLookupService.providerForAccount('prod') == 'aws'
+    defaultProviderLookupService.providerForAccount('test') == 'kubernetes'
+    defaultProviderLookupService.providerForAccount('missing') == 'unknown'
+  }
+
+  def "it should hand out the index built by the last refresh"() {
+    when:
+    defaultProviderLookupService.refreshCache()
+    def index = defaultProviderLookupService.getAccountIndex()
+
+    then:
+    1 * clouddriverService.getAccountDetails() >> {
+      Calls.response([new ClouddriverService.AccountDetails(name: 'prod', type: 'aws')])
+    }
+
+    index.is(defaultProviderLookupService.getAccountIndex())
+    index.accounts.is(defaultProviderLookupService.getAccounts())
+    index.getAccountsForRoles([])*.name == ['prod']
+  }
 }
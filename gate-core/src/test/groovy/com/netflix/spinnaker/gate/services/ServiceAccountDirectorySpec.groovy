@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services
+
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.fiat.model.resources.ServiceAccount
+import com.netflix.spinnaker.gate.services.internal.Front50Service
+import retrofit2.Call
+import retrofit2.Response
+import retrofit2.mock.Calls
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Clock
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class ServiceAccountDirectorySpec extends Specification {
+  long now = 1_000_000L
+
+  Clock clock = Stub(Clock) {
+    millis() >> { now }
+  }
+
+  Front50Service front50Service = Mock(Front50Service)
+
+  @Subject
+  ServiceAccountDirectory directory = new ServiceAccountDirectory(front50Service, new NoopRegistry(), 5000, 30000, clock)
+
+  def "should answer repeated lookups from the cached service accounts"() {
+    when:
+    def results = [
+      directory.isServiceAccount("Deploy@Example.com"),
+      directory.isServiceAccount("deploy@example.com"),
+      directory.isServiceAccount(null)
+    ]
+
+    then:
+    1 * front50Service.getServiceAccounts() >> Calls.response([serviceAccount("deploy@example.com")])
+    results == [true, true, false]
+  }
+
+  def "should reload on a miss at most once per reload interval"() {
+    when:
+    def first = directory.isServiceAccount("new@example.com")
+    def second = directory.isServiceAccount("new@example.com")
+
+    then:
+    1 * front50Service.getServiceAccounts() >> Calls.response([serviceAccount("deploy@example.com")])
+    !first
+    !second
+
+    when:
+    now += 5000
+    def third = directory.isServiceAccount("other@example.com")
+
+    then:
+    1 * front50Service.getServiceAccounts() >> Calls.response([serviceAccount("other@example.com")])
+    third
+  }
+
+  def "should not reload for names that recently were not service accounts"() {
+    when:
+    def results = (1..3).collect {
+      now += 5000
+      directory.isServiceAccount("user@example.com")
+    }
+
+    then: "the first lookup loads the service accounts, later ones are answered from the cache"
+    1 * front50Service.getServiceAccounts() >> Calls.response([serviceAccount("deploy@example.com")])
+    results == [false, false, false]
+
+    when: "the name is no longer remembered"
+    now += 30000
+    def result = directory.isServiceAccount("user@example.com")
+
+    then:
+    1 * front50Service.getServiceAccounts() >> Calls.response([serviceAccount("user@example.com")])
+    result
+  }
+
+  def "should answer known names while a reload is in flight"() {
+    given:
+    def reloading = new CountDownLatch(1)
+    def release = new CountDownLatch(1)
+    front50Service.getServiceAccounts() >>> [
+      Calls.response([serviceAccount("deploy@example.com")]),
+      new BlockingCall(Calls.response([serviceAccount("new@example.com")]), reloading, release)
+    ]
+    directory.isServiceAccount("user@example.com")
+    now += 5000
+
+    when:
+    def reloaded = CompletableFuture.supplyAsync { directory.isServiceAccount("new@example.com") }
+    reloading.await(10, TimeUnit.SECONDS)
+    def known = [
+      CompletableFuture.supplyAsync { directory.isServiceAccount("deploy@example.com") },
+      CompletableFuture.supplyAsync { directory.isServiceAccount("user@example.com") }
+    ]*.get(10, TimeUnit.SECONDS)
+    release.countDown()
+
+    then:
+    known == [true, false]
+    reloaded.get(10, TimeUnit.SECONDS)
+  }
+
+  def "should keep serving the last known service accounts when front50 is unavailable"() {
+    when:
+    directory.isServiceAccount("deploy@example.com")
+    now += 30000
+    directory.refresh()
+
+    then:
+    2 * front50Service.getServiceAccounts() >>> [
+      Calls.response([serviceAccount("deploy@example.com")]),
+      Calls.failure(new IOException("front50 is down"))
+    ]
+    directory.isServiceAccount("deploy@example.com")
+  }
+
+  private static ServiceAccount serviceAccount(String name) {
+    return new ServiceAccount().setName(name)
+  }
+
+  /** Blocks {@code execute()} until released, to hold a reload in flight. */
+  private static class BlockingCall<T> implements Call<T> {
+    @Delegate(excludes = ["execute", "clone"])
+    private final Call<T> delegate
+    private final CountDownLatch executing
+    private final CountDownLatch release
+
+    BlockingCall(Call<T> delegate, CountDownLatch executing, CountDownLatch release) {
+      this.delegate = delegate
+      this.executing = executing
+      this.release = release
+    }
+
+    @Override
+    Response<T> execute() throws IOException {
+      executing.countDown()
+      release.await(10, TimeUnit.SECONDS)
+      return delegate.execute()
+    }
+
+    @Override
+    Call<T> clone() {
+      return new BlockingCall<T>(delegate.clone(), executing, release)
+    }
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FiatLoginCoordinatorTest {
+
+  private static final String USER = "foo@bar.com";
+
+  private final FiatPermissionEvaluator permissionEvaluator = mock(FiatPermissionEvaluator.class);
+  private final List<Runnable> asyncLogins = new ArrayList<>();
+  private final AtomicInteger logins = new AtomicInteger();
+
+  private final Clock clock = mock(Clock.class);
+  private long now = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setUp() {
+    when(clock.millis()).thenAnswer(invocation -> now);
+    executor = Executors.newFixedThreadPool(8);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldSkipLoginWhenRolesAreUnchangedAndPermissionIsCached() {
+    FiatLoginCoordinator coordinator = coordinator(false);
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(true);
+
+    coordinator.login(USER, List.of("a", "b"), logins::incrementAndGet);
+    coordinator.login(USER, List.of("b", "a"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(1);
+
+    coordinator.login(USER, List.of("a", "c"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(2);
+
+    now += Duration.ofMinutes(5).toMillis();
+    coordinator.login(USER, List.of("a", "c"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldNeverSkipLoginsWithoutRoles() {
+    FiatLoginCoordinator coordinator = coordinator(false);
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(true);
+
+    coordinator.login(USER, null, logins::incrementAndGet);
+    coordinator.login(USER, null, logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldNotSkipLoginWhenPermissionIsNoLongerCachedOrUserLoggedOut() {
+    FiatLoginCoordinator coordinator = coordinator(false);
+
+    coordinator.login(USER, List.of("a"), logins::incrementAndGet);
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(false);
+    coordinator.login(USER, List.of("a"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(2);
+
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(true);
+    coordinator.invalidate(USER);
+    coordinator.login(USER, List.of("a"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldCoalesceConcurrentLogins() throws Exception {
+    FiatLoginCoordinator coordinator = coordinator(false);
+    // logins arriving after the first one completed are skipped rather than repeated
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(true);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<?> first =
+        executor.submit(
+            () ->
+                coordinator.login(
+                    USER,
+                    List.of("a"),
+                    () -> {
+                      logins.incrementAndGet();
+                      started.countDown();
+                      await(release);
+                    }));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+    List<Future<?>> others = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      others.add(
+          executor.submit(() -> coordinator.login(USER, List.of("a"), logins::incrementAndGet)));
+    }
+    release.countDown();
+
+    first.get(5, TimeUnit.SECONDS);
+    for (Future<?> other : others) {
+      other.get(5, TimeUnit.SECONDS);
+    }
+    assertThat(logins.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldPropagateFailuresAndNotRecordThemAsSynced() {
+    FiatLoginCoordinator coordinator = coordinator(false);
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(true);
+
+    assertThatThrownBy(
+            () ->
+                coordinator.login(
+                    USER,
+                    null,
+                    () -> {
+                      throw new IllegalStateException("fiat unavailable");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    coordinator.login(USER, null, logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldLoginAsynchronouslyWhenPermissionIsCached() {
+    FiatLoginCoordinator coordinator = coordinator(true);
+
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(false);
+    coordinator.login(USER, List.of("a"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(1);
+    assertThat(asyncLogins).isEmpty();
+
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(true);
+    coordinator.login(USER, List.of("b"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(1);
+    assertThat(asyncLogins).hasSize(1);
+
+    asyncLogins.remove(0).run();
+    assertThat(logins.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldCountAJoinedAsynchronousLoginAsCoalescedOnly() {
+    Registry registry = new DefaultRegistry();
+    FiatLoginCoordinator coordinator = coordinator(registry, asyncLogins::add);
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(true);
+
+    coordinator.login(USER, List.of("a"), logins::incrementAndGet);
+    coordinator.login(USER, List.of("a"), logins::incrementAndGet);
+    assertThat(asyncLogins).hasSize(1);
+
+    asyncLogins.remove(0).run();
+    assertThat(logins.get()).isEqualTo(1);
+    assertThat(count(registry, "asynchronous")).isEqualTo(1);
+    assertThat(count(registry, "coalesced")).isEqualTo(1);
+    assertThat(count(registry, "synchronous")).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldLoginSynchronouslyWhenAsynchronousLoginsAreBackedUp() {
+    Registry registry = new DefaultRegistry();
+    FiatLoginCoordinator coordinator =
+        coordinator(
+            registry,
+            runnable -> {
+              throw new RejectedExecutionException("queue is full");
+            });
+    when(permissionEvaluator.hasCachedPermission(USER)).thenReturn(true);
+
+    coordinator.login(USER, List.of("a"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(1);
+    assertThat(count(registry, "asynchronous")).isEqualTo(0);
+    assertThat(count(registry, "synchronous")).isEqualTo(1);
+
+    // recorded as synced, like any other completed login
+    coordinator.login(USER, List.of("a"), logins::incrementAndGet);
+    assertThat(logins.get()).isEqualTo(1);
+  }
+
+  private FiatLoginCoordinator coordinator(boolean asyncWhenCached) {
+    return new FiatLoginCoordinator(
+        permissionEvaluator,
+        new NoopRegistry(),
+        Duration.ofMinutes(5).toMillis(),
+        asyncWhenCached,
+        clock,
+        asyncLogins::add);
+  }
+
+  private FiatLoginCoordinator coordinator(Registry registry, Executor asyncExecutor) {
+    return new FiatLoginCoordinator(
+        permissionEvaluator,
+        registry,
+        Duration.ofMinutes(5).toMillis(),
+        true,
+        clock,
+        asyncExecutor);
+  }
+
+  private static long count(Registry registry, String result) {
+    return registry.counter("fiat.login.coordinator", "result", result).count();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -16,32 +16,26 @@
 
 package com.netflix.spinnaker.gate.security.iap;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.google.common.base.Preconditions;
-import com.netflix.spinnaker.fiat.model.resources.ServiceAccount;
+import com.google.common.hash.Hashing;
 import com.netflix.spinnaker.gate.security.iap.IapSsoConfig.IapSecurityConfigProperties;
 import com.netflix.spinnaker.gate.services.PermissionService;
-import com.netflix.spinnaker.gate.services.internal.Front50Service;
-import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall;
-import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerServerException;
+import com.netflix.spinnaker.gate.services.ServiceAccountDirectory;
 import com.netflix.spinnaker.security.User;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.ECDSAVerifier;
-import com.nimbusds.jose.jwk.ECKey;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import java.io.IOException;
-import java.net.URL;
-import java.security.interfaces.ECPublicKey;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -57,6 +51,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * * This filter verifies the request header from Cloud IAP containing a JWT token, after the user
  * has been authenticated and authorized by IAP via Google OAuth2.0 and IAP's authorization service.
  * The user email from the payload used to create the Spinnaker user.
+ *
+ * <p>By default the signature of the last verified token is remembered in the HTTP session. When
+ * {@code google.iap.stateless} is enabled, verified tokens are instead remembered in a bounded
+ * local cache (until their expiration time) and no session is ever created.
  */
 @Slf4j
 public class IapAuthenticationFilter extends OncePerRequestFilter {
@@ -68,25 +66,31 @@ public class IapAuthenticationFilter extends OncePerRequestFilter {
 
   private PermissionService permissionService;
 
-  private Front50Service front50Service;
+  private ServiceAccountDirectory serviceAccountDirectory;
+
+  private final IapKeySet keyCache;
 
-  private final Map<String, JWK> keyCache = new HashMap<>();
+  private final Cache<String, VerifiedToken> verifiedTokens;
 
   public IapAuthenticationFilter(
       IapSecurityConfigProperties configProperties,
       PermissionService permissionService,
-      Front50Service front50Service) {
+      ServiceAccountDirectory serviceAccountDirectory) {
     this.configProperties = configProperties;
     this.permissionService = permissionService;
-    this.front50Service = front50Service;
+    this.serviceAccountDirectory = serviceAccountDirectory;
+    this.keyCache = new IapKeySet(configProperties.getIapVerifyKeyUrl());
+    this.verifiedTokens =
+        Caffeine.newBuilder()
+            .maximumSize(configProperties.getVerifiedTokenCacheSize())
+            .expireAfter(new VerifiedTokenExpiry())
+            .build();
   }
 
   @Override
   protected void doFilterInternal(
       HttpServletRequest request, HttpServletResponse response, FilterChain chain)
       throws IOException, ServletException {
-    HttpSession session = request.getSession();
-
     try {
       String token = request.getHeader(configProperties.getJwtHeader());
       Preconditions.checkNotNull(
@@ -95,57 +99,77 @@ public class IapAuthenticationFilter extends OncePerRequestFilter {
 
       SignedJWT jwt = SignedJWT.parse(token);
 
-      Base64URL signatureInSession = (Base64URL) session.getAttribute(SIGNATURE_ATTRIBUTE);
-
-      if (signatureInSession != null && signatureInSession.equals(jwt.getSignature())) {
-        // Signature matches in previous request signatures in current session, skip validation.
-        chain.doFilter(request, response);
-        return;
+      if (configProperties.isStateless()) {
+        authenticateStateless(token, jwt);
+      } else {
+        authenticateWithSession(request.getSession(), jwt);
       }
 
-      User verifiedUser = verifyJWTAndGetUser(jwt);
+    } catch (Exception e) {
+      log.error("Could not verify JWT Token for request {}", request.getPathInfo(), e);
+    }
+    chain.doFilter(request, response);
+  }
 
-      PreAuthenticatedAuthenticationToken authentication =
-          new PreAuthenticatedAuthenticationToken(
-              verifiedUser,
-              null /* credentials */,
-              // Need to set authorities list even if empty to get a valid authentication.
-              verifiedUser.getAuthorities());
+  private void authenticateWithSession(HttpSession session, SignedJWT jwt) throws Exception {
+    Base64URL signatureInSession = (Base64URL) session.getAttribute(SIGNATURE_ATTRIBUTE);
 
-      // Service accounts are already logged in.
-      if (!isServiceAccount(verifiedUser.getEmail())) {
-        permissionService.login(verifiedUser.getEmail());
-      }
+    if (signatureInSession != null && signatureInSession.equals(jwt.getSignature())) {
+      // Signature matches in previous request signatures in current session, skip validation.
+      return;
+    }
 
-      SecurityContextHolder.getContext().setAuthentication(authentication);
+    User verifiedUser = verifyJWTAndGetUser(jwt);
+    login(verifiedUser);
+    setAuthentication(verifiedUser);
 
-      // Save the signature to skip validation for subsequent requests with same token.
-      session.setAttribute(SIGNATURE_ATTRIBUTE, jwt.getSignature());
+    // Save the signature to skip validation for subsequent requests with same token.
+    session.setAttribute(SIGNATURE_ATTRIBUTE, jwt.getSignature());
+  }
 
-    } catch (Exception e) {
-      log.error("Could not verify JWT Token for request {}", request.getPathInfo(), e);
+  /**
+   * Authenticates the request from the cache of verified tokens, verifying (and logging in) only
+   * tokens that have not been seen before. The cache is keyed by a hash of the whole token rather
+   * than by its signature alone, and entries expire at the token's expiration time.
+   */
+  private void authenticateStateless(String token, SignedJWT jwt) throws Exception {
+    String key = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+
+    VerifiedToken verifiedToken = verifiedTokens.getIfPresent(key);
+    if (verifiedToken == null || !verifiedToken.isCurrent(CLOCK.millis())) {
+      User verifiedUser = verifyJWTAndGetUser(jwt);
+      login(verifiedUser);
+      verifiedToken =
+          new VerifiedToken(verifiedUser, jwt.getJWTClaimsSet().getExpirationTime().getTime());
+      verifiedTokens.put(key, verifiedToken);
     }
-    chain.doFilter(request, response);
+
+    setAuthentication(verifiedToken.user);
   }
 
-  private boolean isServiceAccount(String email) {
-    if (email == null || !permissionService.isEnabled()) {
-      return false;
+  private void login(User verifiedUser) {
+    // Service accounts are already logged in.
+    if (!isServiceAccount(verifiedUser.getEmail())) {
+      permissionService.login(verifiedUser.getEmail());
     }
-    try {
-      List<ServiceAccount> serviceAccounts =
-          Retrofit2SyncCall.execute(front50Service.getServiceAccounts());
-      for (ServiceAccount serviceAccount : serviceAccounts) {
+  }
 
-        if (email.equalsIgnoreCase(serviceAccount.getName())) {
-          return true;
-        }
-      }
+  private static void setAuthentication(User verifiedUser) {
+    PreAuthenticatedAuthenticationToken authentication =
+        new PreAuthenticatedAuthenticationToken(
+            verifiedUser,
+            null /* credentials */,
+            // Need to set authorities list even if empty to get a valid authentication.
+            verifiedUser.getAuthorities());
+
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+  }
+
+  private boolean isServiceAccount(String email) {
+    if (email == null || !permissionService.isEnabled()) {
       return false;
-    } catch (SpinnakerServerException e) {
-      log.warn("Could not get list of service accounts.", e);
     }
-    return false;
+    return serviceAccountDirectory.isServiceAccount(email);
   }
 
   private User verifyJWTAndGetUser(SignedJWT jwt) throws Exception {
@@ -191,10 +215,10 @@ public class IapAuthenticationFilter extends OncePerRequestFilter {
     String email = (String) claims.getClaim("email");
     Preconditions.checkNotNull(email, "JWT payload is missing user email (email)");
 
-    ECPublicKey publicKey = getKey(jwsHeader.getKeyID(), jwsHeader.getAlgorithm().getName());
-    Preconditions.checkNotNull(publicKey, "Failed to get EC public key");
+    JWSVerifier jwsVerifier =
+        keyCache.getVerifier(jwsHeader.getKeyID(), jwsHeader.getAlgorithm().getName());
+    Preconditions.checkNotNull(jwsVerifier, "Failed to get EC public key");
 
-    JWSVerifier jwsVerifier = new ECDSAVerifier(publicKey);
     Preconditions.checkState(jwt.verify(jwsVerifier), "EC public key failed verification");
 
     User verifiedUser = new User();
@@ -203,30 +227,50 @@ public class IapAuthenticationFilter extends OncePerRequestFilter {
     return verifiedUser;
   }
 
-  private ECPublicKey getKey(String kid, String alg) throws Exception {
-    JWK jwk = keyCache.get(kid);
-    if (jwk == null) {
-      // update cache loading jwk public key data from url
-      JWKSet jwkSet = JWKSet.load(new URL(configProperties.getIapVerifyKeyUrl()));
-      for (JWK key : jwkSet.getKeys()) {
-        keyCache.put(key.getKeyID(), key);
-      }
-      jwk = keyCache.get(kid);
+  /**
+   * Reloads the public key cache every 5 hours to capture potential IAP public key changes. Keys
+   * are replaced in place, so requests never see an empty cache while the reload is in flight.
+   */
+  @Scheduled(fixedDelay = 18000000L, initialDelay = 18000000L)
+  void refreshKeyCache() {
+    log.debug("Refreshing IAP public key cache.");
+    try {
+      keyCache.refresh();
+    } catch (Exception e) {
+      log.warn("Could not refresh IAP public key cache, retaining {} keys", keyCache.size(), e);
     }
-    // confirm that algorithm matches
-    if (jwk != null && jwk.getAlgorithm() != null && jwk.getAlgorithm().getName().equals(alg)) {
-      return ECKey.parse(jwk.toJSONString()).toECPublicKey();
+  }
+
+  private static class VerifiedToken {
+    final User user;
+    final long expiresAt;
+
+    VerifiedToken(User user, long expiresAt) {
+      this.user = user;
+      this.expiresAt = expiresAt;
+    }
+
+    boolean isCurrent(long now) {
+      return now < expiresAt;
     }
-    return null;
   }
 
-  /**
-   * Clears the public key cache every 5 hours. This is cleared periodically to capture potential
-   * IAP public key changes.
-   */
-  @Scheduled(fixedDelay = 18000000L)
-  void clearKeyCache() {
-    log.debug("Clearing IAP public key cache.");
-    keyCache.clear();
+  private static class VerifiedTokenExpiry implements Expiry<String, VerifiedToken> {
+    @Override
+    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(value.expiresAt - CLOCK.millis(), 0L));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, VerifiedToken value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, VerifiedToken value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
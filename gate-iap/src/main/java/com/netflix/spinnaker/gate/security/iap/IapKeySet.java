@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security.iap;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import java.net.URL;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The IAP public signing keys, held as ready-to-use {@link JWSVerifier}s keyed by key ID (kid).
+ *
+ * <p>Lookups never block on the network for known keys. An unknown kid triggers at most one JWKS
+ * download at a time (concurrent callers wait for it rather than issuing their own), and such
+ * downloads are throttled to one per {@code minReloadIntervalMs} so that unknown or forged key IDs
+ * cannot cause a download per request. {@link #refresh()} replaces the keys in place, so a
+ * periodic refresh picks up rotated keys without ever leaving the cache empty.
+ */
+@Slf4j
+class IapKeySet {
+
+  static final long DEFAULT_MIN_RELOAD_INTERVAL_MS = 30000L;
+
+  private final Map<String, CachedKey> keys = new ConcurrentHashMap<>();
+
+  private final Callable<JWKSet> loader;
+  private final Clock clock;
+  private final long minReloadIntervalMs;
+
+  private long lastReloadAttempt = -1L;
+
+  IapKeySet(String iapVerifyKeyUrl) {
+    this(
+        () -> JWKSet.load(new URL(iapVerifyKeyUrl)),
+        Clock.systemUTC(),
+        DEFAULT_MIN_RELOAD_INTERVAL_MS);
+  }
+
+  IapKeySet(Callable<JWKSet> loader, Clock clock, long minReloadIntervalMs) {
+    this.loader = loader;
+    this.clock = clock;
+    this.minReloadIntervalMs = minReloadIntervalMs;
+  }
+
+  /**
+   * @return a verifier for the key identified by {@code kid}, or null if there is no such key or
+   *     its algorithm is not {@code alg}
+   */
+  JWSVerifier getVerifier(String kid, String alg) throws Exception {
+    CachedKey key = keys.get(kid);
+    if (key == null) {
+      key = loadMissing(kid);
+    }
+
+    // confirm that algorithm matches
+    if (key != null && key.algorithm != null && key.algorithm.equals(alg)) {
+      return key.verifier;
+    }
+    return null;
+  }
+
+  /** Reload all keys, retaining the current ones if the JWKS cannot be fetched. */
+  synchronized void refresh() throws Exception {
+    lastReloadAttempt = clock.millis();
+
+    Map<String, CachedKey> loaded = new HashMap<>();
+    for (JWK jwk : loader.call().getKeys()) {
+      CachedKey key = parse(jwk);
+      if (key != null) {
+        loaded.put(jwk.getKeyID(), key);
+      }
+    }
+
+    keys.putAll(loaded);
+    keys.keySet().retainAll(loaded.keySet());
+    log.debug("Loaded {} IAP public keys.", loaded.size());
+  }
+
+  void put(String kid, JWK jwk) throws JOSEException {
+    CachedKey key = parse(jwk);
+    if (key != null) {
+      keys.put(kid, key);
+    }
+  }
+
+  int size() {
+    return keys.size();
+  }
+
+  private synchronized CachedKey loadMissing(String kid) throws Exception {
+    // another thread may have loaded the key while this one was waiting
+    CachedKey key = keys.get(kid);
+    if (key == null
+        && (lastReloadAttempt < 0 || clock.millis() - lastReloadAttempt >= minReloadIntervalMs)) {
+      refresh();
+      key = keys.get(kid);
+    }
+    return key;
+  }
+
+  private static CachedKey parse(JWK jwk) throws JOSEException {
+    if (!(jwk instanceof ECKey)) {
+      log.debug(
+          "Ignoring IAP public key {} with unsupported type {}", jwk.getKeyID(), jwk.getKeyType());
+      return null;
+    }
+
+    String algorithm = jwk.getAlgorithm() == null ? null : jwk.getAlgorithm().getName();
+    return new CachedKey(algorithm, new ECDSAVerifier(((ECKey) jwk).toECPublicKey()));
+  }
+
+  private static class CachedKey {
+    final String algorithm;
+    final JWSVerifier verifier;
+
+    CachedKey(String algorithm, JWSVerifier verifier) {
+      this.algorithm = algorithm;
+      this.verifier = verifier;
+    }
+  }
+}
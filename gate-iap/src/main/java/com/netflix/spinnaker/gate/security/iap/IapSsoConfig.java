@@ -21,7 +21,7 @@ import com.netflix.spinnaker.gate.config.AuthConfig;
 import com.netflix.spinnaker.gate.security.SpinnakerAuthConfig;
 import com.netflix.spinnaker.gate.security.iap.IapSsoConfig.IapSecurityConfigProperties;
 import com.netflix.spinnaker.gate.services.PermissionService;
-import com.netflix.spinnaker.gate.services.internal.Front50Service;
+import com.netflix.spinnaker.gate.services.ServiceAccountDirectory;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +34,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 /**
@@ -52,13 +53,14 @@ public class IapSsoConfig extends WebSecurityConfigurerAdapter {
 
   @Autowired PermissionService permissionService;
 
-  @Autowired Front50Service front50Service;
+  @Autowired ServiceAccountDirectory serviceAccountDirectory;
 
   @Autowired IapSecurityConfigProperties configProperties;
 
   @Bean
   public IapAuthenticationFilter iapAuthenticationFilter() {
-    return new IapAuthenticationFilter(configProperties, permissionService, front50Service);
+    return new IapAuthenticationFilter(
+        configProperties, permissionService, serviceAccountDirectory);
   }
 
   @Bean
@@ -78,6 +80,15 @@ public class IapSsoConfig extends WebSecurityConfigurerAdapter {
     String iapVerifyKeyUrl = "https://www.gstatic.com/iap/verify/public_key-jwk";
     long issuedAtTimeAllowedSkew = 30000L;
     long expirationTimeAllowedSkew = 30000L;
+
+    /**
+     * Remember verified tokens in a local cache instead of the HTTP session, so that IAP requests
+     * never create a session.
+     */
+    boolean stateless = false;
+
+    /** The maximum number of verified tokens remembered when {@code stateless} is enabled. */
+    long verifiedTokenCacheSize = 10000L;
   }
 
   @Override
@@ -98,6 +109,9 @@ public class IapSsoConfig extends WebSecurityConfigurerAdapter {
         "IAP security expirationTimeAllowedSkew value must be >= 0.");
 
     authConfig.configure(http);
+    if (configProperties.isStateless()) {
+      http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+    }
     http.addFilterBefore(iapAuthenticationFilter(), BasicAuthenticationFilter.class);
   }
 }
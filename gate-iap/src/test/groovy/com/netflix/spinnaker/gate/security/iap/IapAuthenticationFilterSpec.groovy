@@ -18,7 +18,7 @@ package com.netflix.spinnaker.gate.security.iap
 
 import com.google.common.io.BaseEncoding
 import com.netflix.spinnaker.gate.services.PermissionService
-import com.netflix.spinnaker.gate.services.internal.Front50Service
+import com.netflix.spinnaker.gate.services.ServiceAccountDirectory
 import com.nimbusds.jose.JWSAlgorithm
 import com.nimbusds.jose.JWSHeader
 import com.nimbusds.jose.crypto.ECDSASigner
@@ -56,7 +56,7 @@ class IapAuthenticationFilterSpec extends Specification {
     def response = new MockHttpServletResponse()
     def chain = Mock(FilterChain)
     def permissionService = Mock(PermissionService)
-    def front50Service = Mock(Front50Service)
+    def serviceAccountDirectory = Mock(ServiceAccountDirectory)
     def config = new IapSsoConfig.IapSecurityConfigProperties()
     config.audience = "test_audience"
 
@@ -76,7 +76,7 @@ class IapAuthenticationFilterSpec extends Specification {
     request.addHeader(config.jwtHeader, jwt.serialize())
 
     @Subject IapAuthenticationFilter filter = new IapAuthenticationFilter(
-      config, permissionService, front50Service)
+      config, permissionService, serviceAccountDirectory)
 
     // Add public key to key cache
     ECKey key = new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.public)
@@ -98,7 +98,7 @@ class IapAuthenticationFilterSpec extends Specification {
     def response = new MockHttpServletResponse()
     def chain = Mock(FilterChain)
     def permissionService = Mock(PermissionService)
-    def front50Service = Mock(Front50Service)
+    def serviceAccountDirectory = Mock(ServiceAccountDirectory)
     def config = new IapSsoConfig.IapSecurityConfigProperties()
     config.audience = "test_audience"
 
@@ -118,7 +118,7 @@ class IapAuthenticationFilterSpec extends Specification {
     request.addHeader(config.jwtHeader, jwt.serialize())
 
     @Subject IapAuthenticationFilter filter = new IapAuthenticationFilter(
-      config, permissionService, front50Service)
+      config, permissionService, serviceAccountDirectory)
 
     // Add public key to key cache
     ECKey key = new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.public)
@@ -152,7 +152,7 @@ class IapAuthenticationFilterSpec extends Specification {
     def response = new MockHttpServletResponse()
     def chain = Mock(FilterChain)
     def permissionService = Mock(PermissionService)
-    def front50Service = Mock(Front50Service)
+    def serviceAccountDirectory = Mock(ServiceAccountDirectory)
     def config = new IapSsoConfig.IapSecurityConfigProperties()
     config.audience = "test_audience"
 
@@ -164,7 +164,7 @@ class IapAuthenticationFilterSpec extends Specification {
     def header = new JWSHeader.Builder(JWSAlgorithm.ES256).keyID(publicKey).build()
 
     @Subject IapAuthenticationFilter filter = new IapAuthenticationFilter(
-      config, permissionService, front50Service)
+      config, permissionService, serviceAccountDirectory)
 
     // Add public key to key cache
     ECKey key = new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.public)
@@ -213,7 +213,7 @@ class IapAuthenticationFilterSpec extends Specification {
     def response = new MockHttpServletResponse()
     def chain = Mock(FilterChain)
     def permissionService = Mock(PermissionService)
-    def front50Service = Mock(Front50Service)
+    def serviceAccountDirectory = Mock(ServiceAccountDirectory)
     def config = new IapSsoConfig.IapSecurityConfigProperties()
     config.audience = "test_audience"
     config.issuedAtTimeAllowedSkew = 30000L
@@ -238,7 +238,7 @@ class IapAuthenticationFilterSpec extends Specification {
     request.addHeader(config.jwtHeader, jwt.serialize())
 
     @Subject IapAuthenticationFilter filter = new IapAuthenticationFilter(
-      config, permissionService, front50Service)
+      config, permissionService, serviceAccountDirectory)
 
     // Add public key to key cache
     ECKey key = new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.public)
@@ -253,6 +253,62 @@ class IapAuthenticationFilterSpec extends Specification {
     1 * chain.doFilter(request, response)
   }
 
+  def "stateless mode should remember verified tokens without creating a session"() {
+
+    def chain = Mock(FilterChain)
+    def permissionService = Mock(PermissionService)
+    def serviceAccountDirectory = Mock(ServiceAccountDirectory)
+    def config = new IapSsoConfig.IapSecurityConfigProperties()
+    config.audience = "test_audience"
+    config.stateless = true
+
+    // Create key to sign JWT Token
+    KeyPairGenerator gen = KeyPairGenerator.getInstance("EC")
+    gen.initialize(Curve.P_256.toECParameterSpec())
+    KeyPair keyPair = gen.generateKeyPair()
+    def publicKey = BaseEncoding.base64().encode(keyPair.public.encoded)
+
+    // Create the JWT Token
+    def header = new JWSHeader.Builder(JWSAlgorithm.ES256).keyID(publicKey).build()
+    def claims = createValidClaimsBuilder().expirationTime(Date.from(Instant.now().plusSeconds(60))).build()
+    def jwt = new SignedJWT(header, claims)
+
+    jwt.sign(new ECDSASigner((ECPrivateKey) keyPair.private))
+
+    @Subject IapAuthenticationFilter filter = new IapAuthenticationFilter(
+      config, permissionService, serviceAccountDirectory)
+
+    // Add public key to key cache
+    ECKey key = new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.public)
+      .algorithm(JWSAlgorithm.ES256)
+      .build()
+    filter.keyCache.put(publicKey, key)
+
+    when:
+    def request = new MockHttpServletRequest()
+    request.addHeader(config.jwtHeader, jwt.serialize())
+    filter.doFilterInternal(request, new MockHttpServletResponse(), chain)
+
+    then:
+    1 * chain.doFilter(request, _)
+    1 * permissionService.login("test-email")
+    request.getSession(false) == null
+    SecurityContextHolder.context.authentication.principal.email == "test-email"
+
+    when: "a subsequent request (without a session) presents the same token"
+    SecurityContextHolder.clearContext()
+    def subsequentRequest = new MockHttpServletRequest()
+    subsequentRequest.addHeader(config.jwtHeader, jwt.serialize())
+    filter.doFilterInternal(subsequentRequest, new MockHttpServletResponse(), chain)
+
+    then: "the token is not verified or logged in again"
+    1 * chain.doFilter(subsequentRequest, _)
+    0 * permissionService.isEnabled()
+    0 * permissionService.login("test-email")
+    subsequentRequest.getSession(false) == null
+    SecurityContextHolder.context.authentication.principal.email == "test-email"
+  }
+
   JWTClaimsSet.Builder createValidClaimsBuilder() {
     return new JWTClaimsSet.Builder()
       .issueTime(Date.from(Instant.now().minusSeconds(1)))
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security.iap
+
+import com.nimbusds.jose.JWSAlgorithm
+import com.nimbusds.jose.jwk.Curve
+import com.nimbusds.jose.jwk.ECKey
+import com.nimbusds.jose.jwk.JWKSet
+import spock.lang.Specification
+
+import java.security.KeyPairGenerator
+import java.security.interfaces.ECPublicKey
+import java.time.Clock
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class IapKeySetSpec extends Specification {
+
+  long now = 1_000_000L
+
+  Clock clock = Stub(Clock) {
+    millis() >> { now }
+  }
+
+  def "should reuse verifiers for known keys"() {
+    given:
+    def key = ecKey("kid-1")
+    def loads = new AtomicInteger()
+    def keySet = new IapKeySet({ loads.incrementAndGet(); new JWKSet(key) } as Callable<JWKSet>, clock, 30000L)
+
+    when:
+    def verifier = keySet.getVerifier("kid-1", "ES256")
+
+    then:
+    verifier != null
+    keySet.getVerifier("kid-1", "ES256").is(verifier)
+    loads.get() == 1
+
+    and: "algorithm must match"
+    keySet.getVerifier("kid-1", "RS256") == null
+  }
+
+  def "should throttle downloads for unknown key ids"() {
+    given:
+    def loads = new AtomicInteger()
+    def keySet = new IapKeySet({ loads.incrementAndGet(); new JWKSet(ecKey("kid-1")) } as Callable<JWKSet>, clock, 30000L)
+
+    when:
+    keySet.getVerifier("unknown-1", "ES256")
+    keySet.getVerifier("unknown-2", "ES256")
+
+    then:
+    loads.get() == 1
+
+    when:
+    now += 30000L
+    keySet.getVerifier("unknown-3", "ES256")
+
+    then:
+    loads.get() == 2
+  }
+
+  def "should download once for concurrent lookups of an unknown key id"() {
+    given:
+    def key = ecKey("kid-1")
+    def loads = new AtomicInteger()
+    def started = new CountDownLatch(1)
+    def keySet = new IapKeySet({
+      loads.incrementAndGet()
+      started.await(5, TimeUnit.SECONDS)
+      new JWKSet(key)
+    } as Callable<JWKSet>, clock, 30000L)
+    def executor = Executors.newFixedThreadPool(8)
+
+    when:
+    def futures = (1..8).collect { executor.submit({ keySet.getVerifier("kid-1", "ES256") } as Callable) }
+    started.countDown()
+    def verifiers = futures.collect { it.get(5, TimeUnit.SECONDS) }
+
+    then:
+    loads.get() == 1
+    verifiers.every { it != null && it.is(verifiers[0]) }
+
+    cleanup:
+    executor.shutdownNow()
+  }
+
+  def "should retain keys when a refresh fails and retire keys removed from the set"() {
+    given:
+    def responses = [new JWKSet([ecKey("kid-1"), ecKey("kid-2")]), null, new JWKSet(ecKey("kid-2"))]
+    def keySet = new IapKeySet({
+      def response = responses.remove(0)
+      if (response == null) {
+        throw new IOException("unavailable")
+      }
+      response
+    } as Callable<JWKSet>, clock, 30000L)
+
+    when:
+    keySet.refresh()
+
+    then:
+    keySet.size() == 2
+
+    when:
+    keySet.refresh()
+
+    then:
+    thrown(IOException)
+    keySet.size() == 2
+    keySet.getVerifier("kid-1", "ES256") != null
+
+    when:
+    keySet.refresh()
+
+    then:
+    keySet.size() == 1
+    keySet.getVerifier("kid-2", "ES256") != null
+  }
+
+  private static ECKey ecKey(String kid) {
+    KeyPairGenerator gen = KeyPairGenerator.getInstance("EC")
+    gen.initialize(Curve.P_256.toECParameterSpec())
+    return new ECKey.Builder(Curve.P_256, (ECPublicKey) gen.generateKeyPair().public)
+      .keyID(kid)
+      .algorithm(JWSAlgorithm.ES256)
+      .build()
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.gate.security.oauth2;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+/**
+ * A bounded cache of {@link OAuth2Authentication}s keyed by a SHA-256 hash of the access token
+ * they were loaded for, so that clients presenting the same bearer token on every request (ie. the
+ * CLI or automation) do not pay for a userinfo call and Fiat login each time.
+ *
+ * <p>Entries live for the configured ttl, capped at the token's expiry when the userinfo response
+ * carries an {@code exp} claim. Entries used within {@code refreshAhead} of expiring are reloaded
+ * in the background so hot tokens never block on a reload; a failed reload (ie. a revoked token)
+ * evicts the entry.
+ */
+@Slf4j
+class OAuth2AuthenticationCache {
+  private final Cache<String, CachedAuthentication> cache;
+  private final Duration ttl;
+  private final Duration refreshAhead;
+  private final Clock clock;
+  private final Executor refreshExecutor;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter refreshFailures;
+
+  OAuth2AuthenticationCache(
+      OAuth2SsoConfig.AuthenticationCacheProperties properties, Registry registry) {
+    this(properties, registry, Clock.systemUTC(), newRefreshExecutor());
+  }
+
+  OAuth2AuthenticationCache(
+      OAuth2SsoConfig.AuthenticationCacheProperties properties,
+      Registry registry,
+      Clock clock,
+      Executor refreshExecutor) {
+    this.ttl = properties.getTtl();
+    this.refreshAhead = properties.getRefreshAhead();
+    this.clock = clock;
+    this.refreshExecutor = refreshExecutor;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfter(new CachedAuthenticationExpiry(clock))
+            .build();
+
+    this.hits = registry.counter("oauth2.authenticationCache.hits");
+    this.misses = registry.counter("oauth2.authenticationCache.misses");
+    this.refreshFailures = registry.counter("oauth2.authenticationCache.refreshFailures");
+    registry.gauge("oauth2.authenticationCache.size", cache, Cache::estimatedSize);
+  }
+
+  /**
+   * Get the cached authentication for {@code accessToken}, loading it with {@code loader} if
+   * necessary. Concurrent requests for an uncached token share a single load.
+   */
+  OAuth2Authentication get(String accessToken, Function<String, OAuth2Authentication> loader) {
+    String key = hash(accessToken);
+    AtomicBoolean loaded = new AtomicBoolean();
+    CachedAuthentication cached =
+        cache.get(
+            key,
+            k -> {
+              loaded.set(true);
+              return load(accessToken, loader);
+            });
+
+    if (loaded.get()) {
+      misses.increment();
+      return cached.authentication;
+    }
+
+    hits.increment();
+    if (cached.isDueForRefresh(clock.millis()) && cached.refreshing.compareAndSet(false, true)) {
+      refreshExecutor.execute(() -> refresh(key, cached, accessToken, loader));
+    }
+    return cached.authentication;
+  }
+
+  /** Discard all cached authentications for {@code username}, ie. on logout. */
+  void invalidateUser(String username) {
+    cache.asMap().values().removeIf(cached -> username.equals(cached.username));
+  }
+
+  private void refresh(
+      String key,
+      CachedAuthentication previous,
+      String accessToken,
+      Function<String, OAuth2Authentication> loader) {
+    try {
+      CachedAuthentication refreshed = load(accessToken, loader);
+      cache.asMap().replace(key, previous, refreshed);
+    } catch (RuntimeException e) {
+      refreshFailures.increment();
+      log.debug("Unable to refresh cached authentication, evicting", e);
+      cache.asMap().remove(key, previous);
+    }
+  }
+
+  private CachedAuthentication load(
+      String accessToken, Function<String, OAuth2Authentication> loader) {
+    OAuth2Authentication authentication = loader.apply(accessToken);
+    long now = clock.millis();
+    long expiresAt = now + ttl.toMillis();
+
+    Object details = authentication.getUserAuthentication().getDetails();
+    if (details instanceof Map<?, ?> userInfo && userInfo.get("exp") instanceof Number exp) {
+      expiresAt = Math.min(expiresAt, TimeUnit.SECONDS.toMillis(exp.longValue()));
+    }
+
+    return new CachedAuthentication(
+        authentication, username(authentication), expiresAt, expiresAt - refreshAhead.toMillis());
+  }
+
+  private static String username(OAuth2Authentication authentication) {
+    Object principal = authentication.getUserAuthentication().getPrincipal();
+    return principal instanceof UserDetails userDetails ? userDetails.getUsername() : null;
+  }
+
+  private static String hash(String accessToken) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Executor newRefreshExecutor() {
+    return Executors.newFixedThreadPool(
+        2,
+        runnable -> {
+          Thread thread = new Thread(runnable, "oauth2-authentication-refresh");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  private static class CachedAuthentication {
+    private final OAuth2Authentication authentication;
+    private final String username;
+    private final long expiresAt;
+    private final long refreshAt;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    CachedAuthentication(
+        OAuth2Authentication authentication, String username, long expiresAt, long refreshAt) {
+      this.authentication = authentication;
+      this.username = username;
+      this.expiresAt = expiresAt;
+      this.refreshAt = refreshAt;
+    }
+
+    boolean isDueForRefresh(long now) {
+      return now >= refreshAt;
+    }
+  }
+
+  private static class CachedAuthenticationExpiry
+      implements Expiry<String, CachedAuthentication> {
+    private final Clock clock;
+
+    CachedAuthenticationExpiry(Clock clock) {
+      this.clock = clock;
+    }
+
+    @Override
+    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(value.expiresAt - clock.millis(), 0));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, CachedAuthentication value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, CachedAuthentication value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -23,7 +23,8 @@ import com.netflix.spinnaker.gate.security.SpinnakerAuthConfig;
 import com.netflix.spinnaker.gate.security.oauth2.provider.SpinnakerProviderTokenServices;
 import com.netflix.spinnaker.gate.services.CredentialsService;
 import com.netflix.spinnaker.gate.services.PermissionService;
-import com.netflix.spinnaker.gate.services.internal.Front50Service;
+import com.netflix.spinnaker.gate.services.ServiceAccountDirectory;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
@@ -82,7 +83,7 @@ public class OAuth2SsoConfig extends WebSecurityConfigurerAdapter {
       OAuth2SsoConfig.UserInfoMapping userInfoMapping,
       OAuth2SsoConfig.UserInfoRequirements userInfoRequirements,
       PermissionService permissionService,
-      Front50Service front50Service,
+      ServiceAccountDirectory serviceAccountDirectory,
       Optional<SpinnakerProviderTokenServices> providerTokenServices,
       AllowedAccountsSupport allowedAccountsSupport,
       FiatClientConfigurationProperties fiatClientConfigurationProperties,
@@ -94,7 +95,7 @@ public class OAuth2SsoConfig extends WebSecurityConfigurerAdapter {
         userInfoMapping,
         userInfoRequirements,
         permissionService,
-        front50Service,
+        serviceAccountDirectory,
         providerTokenServices,
         allowedAccountsSupport,
         fiatClientConfigurationProperties,
@@ -133,6 +134,22 @@ public class OAuth2SsoConfig extends WebSecurityConfigurerAdapter {
   @ConfigurationProperties("security.oauth2.user-info-requirements")
   public static class UserInfoRequirements extends HashMap<String, String> {}
 
+  /** Caching of bearer token authentications, see {@link OAuth2AuthenticationCache}. */
+  @Component
+  @ConfigurationProperties("security.oauth2.authentication-cache")
+  @Data
+  public static class AuthenticationCacheProperties {
+    private boolean enabled = false;
+
+    /** How long an authentication is cached for, capped at the token's expiry (if known). */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /** Authentications used within this long of expiring are reloaded in the background. */
+    private Duration refreshAhead = Duration.ofMinutes(1);
+
+    private long maximumSize = 10_000;
+  }
+
   /**
    * This class exists to change the login redirect (to /login) to the same URL as the
    * preEstablishedRedirectUri, if set, where the SSL is terminated outside of this server.
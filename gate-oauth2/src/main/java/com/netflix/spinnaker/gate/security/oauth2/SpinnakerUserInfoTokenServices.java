@@ -25,10 +25,8 @@ import com.netflix.spinnaker.gate.security.AllowedAccountsSupport;
 import com.netflix.spinnaker.gate.security.oauth2.provider.SpinnakerProviderTokenServices;
 import com.netflix.spinnaker.gate.services.CredentialsService;
 import com.netflix.spinnaker.gate.services.PermissionService;
-import com.netflix.spinnaker.gate.services.internal.Front50Service;
+import com.netflix.spinnaker.gate.services.ServiceAccountDirectory;
 import com.netflix.spinnaker.kork.core.RetrySupport;
-import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall;
-import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerServerException;
 import com.netflix.spinnaker.security.User;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -47,8 +45,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.ResourceServerProperties;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.UserInfoTokenServices;
+import org.springframework.context.ApplicationListener;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.event.LogoutSuccessEvent;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
@@ -63,7 +64,8 @@ import org.springframework.security.web.authentication.preauth.PreAuthenticatedA
  * object that is returned to include our custom (Kork) User.
  */
 @Slf4j
-public class SpinnakerUserInfoTokenServices implements ResourceServerTokenServices {
+public class SpinnakerUserInfoTokenServices
+    implements ResourceServerTokenServices, ApplicationListener<LogoutSuccessEvent> {
 
   private final ResourceServerProperties sso;
   private final UserInfoTokenServices userInfoTokenServices;
@@ -71,7 +73,7 @@ public class SpinnakerUserInfoTokenServices implements ResourceServerTokenServic
   private final OAuth2SsoConfig.UserInfoMapping userInfoMapping;
   private final OAuth2SsoConfig.UserInfoRequirements userInfoRequirements;
   private final PermissionService permissionService;
-  private final Front50Service front50Service;
+  private final ServiceAccountDirectory serviceAccountDirectory;
   private final SpinnakerProviderTokenServices providerTokenServices;
 
   private final AllowedAccountsSupport allowedAccountsSupport;
@@ -84,6 +86,10 @@ public class SpinnakerUserInfoTokenServices implements ResourceServerTokenServic
 
   private RetrySupport retrySupport = new RetrySupport();
 
+  private OAuth2AuthenticationCache authenticationCache;
+
+  private volatile UserInfoRequirementsMatcher userInfoRequirementsMatcher;
+
   @Autowired
   public SpinnakerUserInfoTokenServices(
       ResourceServerProperties sso,
@@ -92,7 +98,7 @@ public class SpinnakerUserInfoTokenServices implements ResourceServerTokenServic
       OAuth2SsoConfig.UserInfoMapping userInfoMapping,
       OAuth2SsoConfig.UserInfoRequirements userInfoRequirements,
       PermissionService permissionService,
-      Front50Service front50Service,
+      ServiceAccountDirectory serviceAccountDirectory,
       Optional<SpinnakerProviderTokenServices> providerTokenServices,
       AllowedAccountsSupport allowedAccountsSupport,
       FiatClientConfigurationProperties fiatClientConfigurationProperties,
@@ -103,16 +109,40 @@ public class SpinnakerUserInfoTokenServices implements ResourceServerTokenServic
     this.userInfoMapping = userInfoMapping;
     this.userInfoRequirements = userInfoRequirements;
     this.permissionService = permissionService;
-    this.front50Service = front50Service;
+    this.serviceAccountDirectory = serviceAccountDirectory;
     this.providerTokenServices = providerTokenServices.orElse(null);
     this.allowedAccountsSupport = allowedAccountsSupport;
     this.fiatClientConfigurationProperties = fiatClientConfigurationProperties;
     this.registry = registry;
   }
 
+  @Autowired(required = false)
+  public void setAuthenticationCacheProperties(
+      OAuth2SsoConfig.AuthenticationCacheProperties authenticationCacheProperties) {
+    this.authenticationCache =
+        authenticationCacheProperties.isEnabled()
+            ? new OAuth2AuthenticationCache(authenticationCacheProperties, registry)
+            : null;
+  }
+
   @Override
   public OAuth2Authentication loadAuthentication(final String accessToken)
       throws AuthenticationException, InvalidTokenException {
+    if (authenticationCache != null) {
+      return authenticationCache.get(accessToken, this::authenticate);
+    }
+    return authenticate(accessToken);
+  }
+
+  @Override
+  public void onApplicationEvent(LogoutSuccessEvent event) {
+    if (authenticationCache != null
+        && event.getAuthentication().getPrincipal() instanceof UserDetails userDetails) {
+      authenticationCache.invalidateUser(userDetails.getUsername());
+    }
+  }
+
+  private OAuth2Authentication authenticate(String accessToken) {
     OAuth2Authentication oAuth2Authentication =
         userInfoTokenServices.loadAuthentication(accessToken);
 
@@ -228,27 +258,7 @@ public class SpinnakerUserInfoTokenServices implements ResourceServerTokenServic
     if (email == null || !permissionService.isEnabled()) {
       return false;
     }
-    try {
-      return Optional.ofNullable(Retrofit2SyncCall.execute(front50Service.getServiceAccounts()))
-          .orElse(new ArrayList<>())
-          .stream()
-          .anyMatch(sa -> email.equalsIgnoreCase(sa.getName()));
-    } catch (SpinnakerServerException e) {
-      log.warn("Could not get list of service accounts.", e);
-    }
-    return false;
-  }
-
-  private static boolean valueMatchesConstraint(Object value, String requiredVal) {
-    if (value == null) {
-      return false;
-    }
-
-    if (isRegexExpression(requiredVal)) {
-      return String.valueOf(value).matches(mutateRegexPattern(requiredVal));
-    }
-
-    return value.equals(requiredVal);
+    return serviceAccountDirectory.isServiceAccount(email);
   }
 
   public boolean hasAllUserInfoRequirements(Map<String, Object> details) {
@@ -256,38 +266,14 @@ public class SpinnakerUserInfoTokenServices implements ResourceServerTokenServic
       return true;
     }
 
-    Map<String, String> invalidFields =
-        userInfoRequirements.entrySet().stream()
-            .filter(
-                entry -> {
-                  String reqKey = entry.getKey();
-                  String reqVal = entry.getValue();
-                  Object value = details.get(reqKey);
-
-                  if (value instanceof Collection<?> collection) {
-                    return collection.stream()
-                        .noneMatch(item -> valueMatchesConstraint(item, reqVal));
-                  }
-                  return !valueMatchesConstraint(value, reqVal);
-                })
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-    if (!invalidFields.isEmpty() && log.isDebugEnabled()) {
-      log.debug(
-          "Invalid userInfo response: "
-              + invalidFields.entrySet().stream()
-                  .map(
-                      entry ->
-                          "got "
-                              + entry.getKey()
-                              + "="
-                              + details.get(entry.getKey())
-                              + ", wanted "
-                              + entry.getValue())
-                  .collect(Collectors.joining(", ")));
+    // recompiled only when the (refreshable) requirements have changed
+    UserInfoRequirementsMatcher matcher = userInfoRequirementsMatcher;
+    if (matcher == null || !matcher.isCompiledFrom(userInfoRequirements)) {
+      matcher = UserInfoRequirementsMatcher.compile(userInfoRequirements);
+      userInfoRequirementsMatcher = matcher;
     }
 
-    return invalidFields.isEmpty();
+    return matcher.matches(details);
   }
 
   public static boolean isRegexExpression(String val) {
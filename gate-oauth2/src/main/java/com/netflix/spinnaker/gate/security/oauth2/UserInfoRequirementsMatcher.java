@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.gate.security.oauth2;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An immutable, compiled form of {@link OAuth2SsoConfig.UserInfoRequirements}.
+ *
+ * <p>Regex requirements ({@code /expr/}) are compiled once and every other requirement is compared
+ * literally, so evaluating user info details does not recompile patterns per login and only
+ * allocates (to log the offending fields) when a requirement is not met.
+ */
+@Slf4j
+class UserInfoRequirementsMatcher {
+
+  private final Map<String, String> source;
+  private final Requirement[] requirements;
+
+  private UserInfoRequirementsMatcher(Map<String, String> source, Requirement[] requirements) {
+    this.source = source;
+    this.requirements = requirements;
+  }
+
+  static UserInfoRequirementsMatcher compile(Map<String, String> userInfoRequirements) {
+    Map<String, String> source = Map.copyOf(userInfoRequirements);
+    Requirement[] requirements =
+        source.entrySet().stream()
+            .map(entry -> Requirement.compile(entry.getKey(), entry.getValue()))
+            .toArray(Requirement[]::new);
+    return new UserInfoRequirementsMatcher(source, requirements);
+  }
+
+  /** @return true if this matcher was compiled from requirements equal to the given ones */
+  boolean isCompiledFrom(Map<String, String> userInfoRequirements) {
+    return source.equals(userInfoRequirements);
+  }
+
+  boolean matches(Map<String, Object> details) {
+    for (int i = 0; i < requirements.length; i++) {
+      if (!requirements[i].isSatisfiedBy(details.get(requirements[i].key))) {
+        logInvalidFields(details, i);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void logInvalidFields(Map<String, Object> details, int firstInvalid) {
+    if (!log.isDebugEnabled()) {
+      return;
+    }
+
+    log.debug(
+        "Invalid userInfo response: "
+            + Stream.of(requirements)
+                .skip(firstInvalid)
+                .filter(requirement -> !requirement.isSatisfiedBy(details.get(requirement.key)))
+                .map(
+                    requirement ->
+                        "got "
+                            + requirement.key
+                            + "="
+                            + details.get(requirement.key)
+                            + ", wanted "
+                            + requirement.value)
+                .collect(Collectors.joining(", ")));
+  }
+
+  private static class Requirement {
+    final String key;
+    final String value;
+
+    /** The compiled regex, or null if {@code value} is compared literally. */
+    final Pattern pattern;
+
+    private Requirement(String key, String value, Pattern pattern) {
+      this.key = key;
+      this.value = value;
+      this.pattern = pattern;
+    }
+
+    static Requirement compile(String key, String value) {
+      if (SpinnakerUserInfoTokenServices.isRegexExpression(value)) {
+        try {
+          return new Requirement(
+              key,
+              value,
+              Pattern.compile(SpinnakerUserInfoTokenServices.mutateRegexPattern(value)));
+        } catch (PatternSyntaxException e) {
+          log.warn("Invalid regex for user info requirement {}, comparing literally", key, e);
+        }
+      }
+      return new Requirement(key, value, null);
+    }
+
+    boolean isSatisfiedBy(Object detail) {
+      if (detail instanceof List<?> list && detail instanceof RandomAccess) {
+        for (int i = 0; i < list.size(); i++) {
+          if (matches(list.get(i))) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      if (detail instanceof Collection<?> collection) {
+        for (Object item : collection) {
+          if (matches(item)) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      return matches(detail);
+    }
+
+    private boolean matches(Object item) {
+      if (item == null) {
+        return false;
+      }
+
+      if (pattern != null) {
+        return pattern.matcher(String.valueOf(item)).matches();
+      }
+
+      return item.equals(value);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security.oauth2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spinnaker.security.User;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+public class OAuth2AuthenticationCacheTest {
+
+  private final MutableClock clock = new MutableClock();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private OAuth2AuthenticationCache cache;
+
+  @BeforeEach
+  public void setUp() {
+    OAuth2SsoConfig.AuthenticationCacheProperties properties =
+        new OAuth2SsoConfig.AuthenticationCacheProperties();
+    properties.setEnabled(true);
+    properties.setTtl(Duration.ofMinutes(5));
+    properties.setRefreshAhead(Duration.ofMinutes(1));
+
+    cache = new OAuth2AuthenticationCache(properties, new NoopRegistry(), clock, Runnable::run);
+  }
+
+  @Test
+  public void shouldLoadEachTokenOnce() {
+    OAuth2Authentication first = cache.get("token", loader("user@example.com", Map.of()));
+    OAuth2Authentication second = cache.get("token", loader("user@example.com", Map.of()));
+    cache.get("other-token", loader("user@example.com", Map.of()));
+
+    assertThat(second).isSameAs(first);
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldRefreshAheadOfExpiry() {
+    OAuth2Authentication first = cache.get("token", loader("user@example.com", Map.of()));
+
+    clock.advance(Duration.ofMinutes(4).plusSeconds(1));
+    OAuth2Authentication stale = cache.get("token", loader("user@example.com", Map.of()));
+    OAuth2Authentication refreshed = cache.get("token", loader("user@example.com", Map.of()));
+
+    assertThat(stale).isSameAs(first);
+    assertThat(refreshed).isNotSameAs(first);
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldEvictWhenRefreshFails() {
+    cache.get("token", loader("user@example.com", Map.of()));
+
+    clock.advance(Duration.ofMinutes(4).plusSeconds(1));
+    cache.get(
+        "token",
+        token -> {
+          throw new BadCredentialsException("revoked");
+        });
+    cache.get("token", loader("user@example.com", Map.of()));
+
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldCapTheTtlAtTheTokenExpiry() {
+    long exp = clock.instant().plusSeconds(30).getEpochSecond();
+
+    OAuth2Authentication first = cache.get("token", loader("user@example.com", Map.of("exp", exp)));
+    OAuth2Authentication second =
+        cache.get("token", loader("user@example.com", Map.of("exp", exp)));
+
+    // expiring within the refresh-ahead window, so this is reloaded in the background
+    assertThat(second).isSameAs(first);
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldInvalidateAllTokensOfAUser() {
+    cache.get("token", loader("user@example.com", Map.of()));
+    cache.get("other-token", loader("user@example.com", Map.of()));
+    cache.get("someone-elses-token", loader("someone@example.com", Map.of()));
+
+    cache.invalidateUser("user@example.com");
+    cache.get("token", loader("user@example.com", Map.of()));
+    cache.get("other-token", loader("user@example.com", Map.of()));
+    cache.get("someone-elses-token", loader("someone@example.com", Map.of()));
+
+    assertThat(loads.get()).isEqualTo(5);
+  }
+
+  private Function<String, OAuth2Authentication> loader(
+      String username, Map<String, Object> details) {
+    return token -> {
+      loads.incrementAndGet();
+
+      User user = new User();
+      user.setUsername(username);
+      PreAuthenticatedAuthenticationToken authentication =
+          new PreAuthenticatedAuthenticationToken(user, null, List.of());
+      authentication.setDetails(details);
+
+      OAuth2Request request =
+          new OAuth2Request(null, "client", null, true, null, null, null, null, null);
+      return new OAuth2Authentication(request, authentication);
+    };
+  }
+
+  private static class MutableClock extends Clock {
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -21,8 +21,10 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.netflix.spectator.api.NoopRegistry;
 import com.netflix.spinnaker.fiat.model.resources.ServiceAccount;
 import com.netflix.spinnaker.gate.services.PermissionService;
+import com.netflix.spinnaker.gate.services.ServiceAccountDirectory;
 import com.netflix.spinnaker.gate.services.internal.Front50Service;
 import java.util.HashMap;
 import java.util.List;
@@ -137,7 +139,7 @@ public class SpinnakerUserInfoTokenServicesTest {
             new OAuth2SsoConfig.UserInfoMapping(),
             null,
             permissionService,
-            front50Service,
+            new ServiceAccountDirectory(front50Service, new NoopRegistry()),
             Optional.empty(),
             null,
             null,
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.security.oauth2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class UserInfoRequirementsMatcherTest {
+
+  private static final List<String> GROUPS =
+      IntStream.range(0, 500).mapToObj(i -> "group-" + i).collect(Collectors.toList());
+
+  @Test
+  public void shouldMatchLiteralAndRegexRequirementsAgainstLargeGroupClaims() {
+    UserInfoRequirementsMatcher matcher =
+        UserInfoRequirementsMatcher.compile(
+            Map.of("hd", "foo.com", "groups", "/^group-4\\d\\d$/", "roles", "admin"));
+
+    Map<String, Object> details =
+        Map.of("hd", "foo.com", "groups", GROUPS, "roles", Set.of("user", "admin"));
+    assertThat(matcher.matches(details)).isTrue();
+
+    assertThat(matcher.matches(Map.of("hd", "foo.com", "groups", GROUPS.subList(0, 400))))
+        .isFalse();
+    assertThat(
+            matcher.matches(
+                Map.of("hd", "foo.com", "groups", GROUPS, "roles", Set.of("user", "operator"))))
+        .isFalse();
+    assertThat(matcher.matches(Map.of("hd", "bar.com", "groups", GROUPS, "roles", "admin")))
+        .isFalse();
+  }
+
+  @Test
+  public void shouldOnlyMatchWholeValuesAgainstRegexRequirements() {
+    UserInfoRequirementsMatcher matcher =
+        UserInfoRequirementsMatcher.compile(Map.of("roles", "/.+_ADMIN/"));
+
+    assertThat(matcher.matches(Map.of("roles", "foo_ADMIN"))).isTrue();
+    assertThat(matcher.matches(Map.of("roles", "foo_ADMINISTRATOR"))).isFalse();
+    assertThat(matcher.matches(Map.of("roles", List.of("_ADMIN", "foo_USER")))).isFalse();
+  }
+
+  @Test
+  public void shouldCompareNonStringValuesLiterally() {
+    UserInfoRequirementsMatcher matcher =
+        UserInfoRequirementsMatcher.compile(Map.of("email_verified", "true"));
+
+    assertThat(matcher.matches(Map.of("email_verified", "true"))).isTrue();
+    assertThat(matcher.matches(Map.of("email_verified", true))).isFalse();
+  }
+
+  @Test
+  public void shouldRecognizeTheRequirementsItWasCompiledFrom() {
+    OAuth2SsoConfig.UserInfoRequirements requirements = new OAuth2SsoConfig.UserInfoRequirements();
+    requirements.put("hd", "foo.com");
+
+    UserInfoRequirementsMatcher matcher = UserInfoRequirementsMatcher.compile(requirements);
+    assertThat(matcher.isCompiledFrom(requirements)).isTrue();
+
+    requirements.put("hd", "bar.com");
+    assertThat(matcher.isCompiledFrom(requirements)).isFalse();
+    assertThat(matcher.matches(Map.of("hd", "bar.com"))).isFalse();
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.netflix.spinnaker.gate.plugins.deck
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import com.netflix.spectator.api.Id
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.kork.plugins.SpringPluginStatusProvider
@@ -22,9 +23,15 @@ import com.netflix.spinnaker.kork.plugins.SpringStrictPluginLoaderStatusProvider
 import com.netflix.spinnaker.kork.plugins.bundle.PluginBundleExtractor
 import com.netflix.spinnaker.kork.plugins.update.SpinnakerUpdateManager
 import com.netflix.spinnaker.kork.plugins.update.release.provider.PluginInfoReleaseProvider
+import java.io.IOException
 import java.nio.file.Files
 import java.nio.file.Path
 import java.nio.file.StandardCopyOption
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 import org.pf4j.PluginRuntimeException
 import org.slf4j.LoggerFactory
 import org.springframework.scheduling.annotation.Scheduled
@@ -33,6 +40,9 @@ import java.util.Optional
 
 /**
  * Responsible for keeping an up-to-date cache of all plugins that Deck needs to know about.
+ *
+ * Plugin versions are downloaded in parallel (bounded by [downloadParallelism]) and at most once at a time per
+ * `pluginId@version`; callers asking for a version that is already being downloaded wait on that download.
  */
 class DeckPluginCache(
   private val updateManager: SpinnakerUpdateManager,
@@ -41,14 +51,27 @@ class DeckPluginCache(
   private val pluginInfoReleaseProvider: PluginInfoReleaseProvider,
   private val registry: Registry,
   private val springStrictPluginLoaderStatusProvider: SpringStrictPluginLoaderStatusProvider,
-  private val pluginsCacheDirectory: Optional<String>
+  private val pluginsCacheDirectory: Optional<String>,
+  downloadParallelism: Int = DEFAULT_DOWNLOAD_PARALLELISM
 ) {
 
   private val log by lazy { LoggerFactory.getLogger(javaClass) }
 
-  private val cache: MutableSet<PluginCacheEntry> = mutableSetOf()
+  /**
+   * An immutable snapshot of the current plugins, replaced wholesale on each refresh.
+   */
+  @Volatile
+  private var cache: Set<PluginCacheEntry> = emptySet()
+
+  @Volatile
   private var cachePopulated: Boolean = false
 
+  private val inFlightDownloads: MutableMap<String, CompletableFuture<Path?>> = ConcurrentHashMap()
+  private val downloadExecutor: ExecutorService = Executors.newFixedThreadPool(
+    downloadParallelism,
+    ThreadFactoryBuilder().setNameFormat("deck-plugin-download-%d").setDaemon(true).build()
+  )
+
   private val versionsId = registry.createId("plugins.deckCache.versions")
   private val hitsId = registry.createId("plugins.deckCache.hits")
   private val missesId = registry.createId("plugins.deckCache.misses")
@@ -80,65 +103,110 @@ class DeckPluginCache(
         .filter { springPluginStatusProvider.isPluginEnabled(it.id) }
         .let { enabledPlugins -> pluginInfoReleaseProvider.getReleases(enabledPlugins) }
 
-      val newCache = releases.mapNotNull { release ->
+      val downloads = releases.map { release ->
         val plugin = DeckPluginVersion(release.pluginId, release.props.version)
-        getOrDownload(plugin.id, plugin.version)?.let {
+        plugin to getOrDownloadAsync(plugin.id, plugin.version)
+      }
+
+      val newCache = downloads.mapNotNull { (plugin, download) ->
+        await(download)?.let {
           path ->
           PluginCacheEntry(plugin, path)
         }
-      }
+      }.toSet()
 
-      cache.removeIf { !newCache.contains(it) }
-      cache.addAll(newCache)
+      cache = newCache
 
-      cache.forEach {
+      newCache.forEach {
         registry.counter(versionsId.withPluginTags(it.plugin.id, it.plugin.version)).increment()
       }
 
       cachePopulated = true
-      log.info("Cached ${cache.size} deck plugins")
+      log.info("Cached ${newCache.size} deck plugins")
     }
   }
 
   fun isCachePopulated(): Boolean = cachePopulated
 
   fun getCache(): Set<PluginCacheEntry> {
-    return cache.toSet()
+    return cache
   }
 
   /**
    * Get a previously downloaded plugin path, or download the plugin and cache the artifacts for subsequent requests.
    */
   fun getOrDownload(pluginId: String, pluginVersion: String): Path? {
+    return await(getOrDownloadAsync(pluginId, pluginVersion))
+  }
+
+  private fun getOrDownloadAsync(pluginId: String, pluginVersion: String): CompletableFuture<Path?> {
     val cachePath = CACHE_ROOT_PATH.resolve("$pluginId/$pluginVersion")
-    if (!cachePath.toFile().isDirectory) {
-      try {
-        registry.timer(downloadDurationId.withPluginTags(pluginId, pluginVersion)).record {
-          log.info("Downloading plugin '$pluginId@$pluginVersion'")
-          val deckPluginPath = pluginBundleExtractor.extractService(
-            updateManager.downloadPluginRelease(pluginId, pluginVersion),
-            "deck"
-          )
-
-          log.info("Adding plugin '$pluginId@$pluginVersion' to local cache: $cachePath")
-          Files.createDirectories(cachePath)
-          Files.move(deckPluginPath, cachePath, StandardCopyOption.REPLACE_EXISTING)
-        }
-      } catch (e: PluginRuntimeException) {
-        log.warn("Unable to download plugin {}@{}", pluginId, pluginVersion)
-        if (springStrictPluginLoaderStatusProvider.isStrictPluginLoading()) {
-          throw PluginRuntimeException(e, "Unable to download plugin {}@{}", pluginId, pluginVersion)
-        } else {
-          return null
+    if (cachePath.toFile().isDirectory) {
+      registry.counter(hitsId.withPluginTags(pluginId, pluginVersion)).increment()
+      return CompletableFuture.completedFuture(cachePath)
+    }
+
+    val key = "$pluginId@$pluginVersion"
+    val download = inFlightDownloads.computeIfAbsent(key) {
+      CompletableFuture.supplyAsync({ download(pluginId, pluginVersion, cachePath) }, downloadExecutor)
+    }
+    download.whenComplete { _, _ -> inFlightDownloads.remove(key, download) }
+    return download
+  }
+
+  private fun download(pluginId: String, pluginVersion: String, cachePath: Path): Path? {
+    if (cachePath.toFile().isDirectory) {
+      // downloaded by a previous request between the cache check and this download being scheduled
+      registry.counter(hitsId.withPluginTags(pluginId, pluginVersion)).increment()
+      return cachePath
+    }
+
+    var cachedConcurrently = false
+    try {
+      registry.timer(downloadDurationId.withPluginTags(pluginId, pluginVersion)).record {
+        log.info("Downloading plugin '$pluginId@$pluginVersion'")
+        val deckPluginPath = pluginBundleExtractor.extractService(
+          updateManager.downloadPluginRelease(pluginId, pluginVersion),
+          "deck"
+        )
+
+        log.info("Adding plugin '$pluginId@$pluginVersion' to local cache: $cachePath")
+        // stage next to the final location so that the cache path only ever appears fully populated
+        Files.createDirectories(cachePath.parent)
+        val stagingPath = Files.createTempDirectory(cachePath.parent, ".$pluginVersion-")
+        try {
+          Files.move(deckPluginPath, stagingPath, StandardCopyOption.REPLACE_EXISTING)
+          Files.move(stagingPath, cachePath, StandardCopyOption.ATOMIC_MOVE)
+        } catch (e: IOException) {
+          stagingPath.toFile().deleteRecursively()
+          if (!cachePath.toFile().isDirectory) {
+            throw e
+          }
+          // populated by another gate sharing the cache directory (or left over from a previous run)
+          log.info("Plugin '$pluginId@$pluginVersion' is already cached, discarding download: $cachePath")
+          cachedConcurrently = true
         }
       }
-      registry.counter(missesId.withPluginTags(pluginId, pluginVersion)).increment()
-    } else {
-      registry.counter(hitsId.withPluginTags(pluginId, pluginVersion)).increment()
+    } catch (e: PluginRuntimeException) {
+      log.warn("Unable to download plugin {}@{}", pluginId, pluginVersion)
+      if (springStrictPluginLoaderStatusProvider.isStrictPluginLoading()) {
+        throw PluginRuntimeException(e, "Unable to download plugin {}@{}", pluginId, pluginVersion)
+      } else {
+        return null
+      }
     }
+    registry.counter((if (cachedConcurrently) hitsId else missesId).withPluginTags(pluginId, pluginVersion)).increment()
     return cachePath
   }
 
+  private fun await(download: CompletableFuture<Path?>): Path? {
+    try {
+      return download.join()
+    } catch (e: CompletionException) {
+      throw e.cause ?: e
+    }
+  }
+
   private fun Id.withPluginTags(pluginId: String, version: String): Id =
     withTags("pluginId", pluginId, "version", version)
 
@@ -153,5 +221,6 @@ class DeckPluginCache(
 
   companion object {
     internal const val DECK_REQUIREMENT = "deck"
+    internal const val DEFAULT_DOWNLOAD_PARALLELISM = 4
   }
 }
@@ -39,6 +39,9 @@ class DeckPluginConfiguration {
   @Value("\${spinnaker.extensibility.deck-proxy.plugins-path:#{null}}")
   private val pluginsCacheDirectory: String? = null
 
+  @Value("\${spinnaker.extensibility.deck-proxy.download-parallelism:4}")
+  private val downloadParallelism: Int = DeckPluginCache.DEFAULT_DOWNLOAD_PARALLELISM
+
   @Bean
   fun deckPluginCache(
     updateManager: SpinnakerUpdateManager,
@@ -63,7 +66,8 @@ class DeckPluginConfiguration {
       AggregatePluginInfoReleaseProvider(sources, springStrictPluginLoaderStatusProvider),
       registry,
       springStrictPluginLoaderStatusProvider,
-      Optional.ofNullable(pluginsCacheDirectory)
+      Optional.ofNullable(pluginsCacheDirectory),
+      downloadParallelism
     )
   }
 
@@ -15,8 +15,14 @@
  */
 package com.netflix.spinnaker.gate.plugins.deck
 
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+import com.google.common.cache.Weigher
 import com.netflix.spectator.api.Registry
-import java.io.File
+import java.io.ByteArrayOutputStream
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.GZIPOutputStream
 import org.slf4j.LoggerFactory
 
 /**
@@ -33,6 +39,21 @@ open class DeckPluginService(
   private val assetHitsId = registry.createId("plugins.deckAssets.hits")
   private val assetMissesId = registry.createId("plugins.deckAssets.misses")
 
+  /**
+   * Gzip-compressed asset contents, keyed by asset path and etag (so that a re-downloaded asset is compressed again),
+   * bounded by total size. Entries never need to be invalidated, only evicted.
+   */
+  private val compressedAssets: Cache<Pair<Path, String>, ByteArray> = CacheBuilder.newBuilder()
+    .maximumWeight(COMPRESSED_ASSETS_MAX_BYTES)
+    .weigher(Weigher<Pair<Path, String>, ByteArray> { _, content -> content.size })
+    .build()
+
+  init {
+    registry.gauge(registry.createId("plugins.deckAssets.compressedCache.bytes"), compressedAssets) {
+      it.asMap().values.sumOf { content -> content.size.toLong() }.toDouble()
+    }
+  }
+
   /**
    * Returns a list of all plugin versions that Deck should know how to load.
    *
@@ -61,24 +82,46 @@ open class DeckPluginService(
 
     val localAsset = pluginCache.getOrDownload(pluginId, pluginVersion)?.let {
       path ->
-      path.resolve(sanitizedAssetPath).toFile()
+      path.resolve(sanitizedAssetPath)
     }
-    if (localAsset == null || !localAsset.exists()) {
+    if (localAsset == null || !Files.isRegularFile(localAsset)) {
       log.error("Unable to find requested plugin asset '$assetPath' for '$pluginId@$pluginVersion'")
       registry.counter(assetMissesId).increment()
       return null
     }
     registry.counter(assetHitsId).increment()
 
-    return PluginAsset.from(localAsset)
+    return PluginAsset.from(pluginId, pluginVersion, localAsset)
+  }
+
+  /**
+   * Get the gzip-compressed contents of a plugin asset, compressing (and caching) it on first access.
+   */
+  fun getCompressedContent(pluginAsset: PluginAsset): ByteArray {
+    return compressedAssets.get(Pair(pluginAsset.file, pluginAsset.etag)) {
+      val compressed = ByteArrayOutputStream()
+      GZIPOutputStream(compressed).use { Files.copy(pluginAsset.file, it) }
+      compressed.toByteArray()
+    }
   }
 
-  data class PluginAsset(val contentType: String, val content: String) {
+  /**
+   * @param contentType The content type of the asset
+   * @param file The path to the asset in the local plugin cache
+   * @param etag A strong entity tag, plugin versions are immutable so this only changes if the asset is re-downloaded
+   */
+  data class PluginAsset(val contentType: String, val file: Path, val etag: String) {
+
+    /**
+     * The strong entity tag of the gzip-compressed asset, which is a different representation than the asset itself.
+     */
+    val gzipEtag: String
+      get() = etag.removeSuffix("\"") + "-gzip\""
 
     companion object {
       private val log by lazy { LoggerFactory.getLogger(PluginAsset::class.java) }
 
-      fun from(file: File): PluginAsset {
+      fun from(pluginId: String, pluginVersion: String, file: Path): PluginAsset {
         return PluginAsset(
           contentType = when {
             file.toString().endsWith(".js") -> {
@@ -95,9 +138,20 @@ open class DeckPluginService(
               "text/plain"
             }
           },
-          content = file.readText()
+          file = file,
+          etag = etag(pluginId, pluginVersion, file)
         )
       }
+
+      private fun etag(pluginId: String, pluginVersion: String, file: Path): String {
+        val size = Files.size(file).toString(16)
+        val lastModified = Files.getLastModifiedTime(file).toMillis().toString(16)
+        return "\"$pluginId@$pluginVersion-$size-$lastModified\""
+      }
     }
   }
+
+  companion object {
+    private const val COMPRESSED_ASSETS_MAX_BYTES = 64L * 1024 * 1024
+  }
 }
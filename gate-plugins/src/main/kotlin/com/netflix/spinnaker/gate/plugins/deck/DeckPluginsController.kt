@@ -21,12 +21,17 @@ import io.swagger.v3.oas.annotations.Operation
 import java.util.concurrent.TimeUnit
 import javax.servlet.http.HttpServletResponse
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.core.io.ByteArrayResource
+import org.springframework.core.io.FileSystemResource
+import org.springframework.core.io.Resource
 import org.springframework.http.CacheControl
+import org.springframework.http.HttpHeaders
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.ExceptionHandler
 import org.springframework.web.bind.annotation.GetMapping
 import org.springframework.web.bind.annotation.PathVariable
+import org.springframework.web.bind.annotation.RequestHeader
 import org.springframework.web.bind.annotation.RequestMapping
 import org.springframework.web.bind.annotation.RestController
 
@@ -43,26 +48,45 @@ class DeckPluginsController(
     return deckPluginService.getPluginsManifests()
   }
 
+  /**
+   * Plugin assets are addressed by an immutable plugin version, so they are served with a strong ETag and may be
+   * cached by the browser indefinitely. Assets are streamed from the local plugin cache rather than buffered, and
+   * clients that accept gzip are served a cached, pre-compressed copy (with an ETag of its own).
+   */
   @Operation(summary = "Retrieve a single plugin asset by version")
   @GetMapping("/{pluginId}/{pluginVersion}/{asset:.*}")
   fun getPluginAsset(
     @PathVariable pluginId: String,
     @PathVariable pluginVersion: String,
-    @PathVariable asset: String
-  ): ResponseEntity<String> {
+    @PathVariable asset: String,
+    @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?,
+    @RequestHeader(HttpHeaders.ACCEPT_ENCODING, required = false) acceptEncoding: String?
+  ): ResponseEntity<Resource> {
     val pluginAsset = deckPluginService.getPluginAsset(pluginId, pluginVersion, asset) ?: throw NotFoundException("Unable to find asset for plugin version")
 
-    return ResponseEntity.ok()
-      .header("Content-Type", pluginAsset.contentType)
-      .header(
-        "Cache-Control",
-        CacheControl
-          .maxAge(30, TimeUnit.DAYS)
-          .mustRevalidate()
-          .cachePrivate()
-          .headerValue
-      )
-      .body(pluginAsset.content)
+    val gzip = acceptsGzip(acceptEncoding)
+    val etag = if (gzip) pluginAsset.gzipEtag else pluginAsset.etag
+
+    if (matchesETag(ifNoneMatch, pluginAsset)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .eTag(etag)
+        .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .build()
+    }
+
+    val response = ResponseEntity.ok()
+      .header(HttpHeaders.CONTENT_TYPE, pluginAsset.contentType)
+      .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+      .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+      .eTag(etag)
+
+    if (gzip) {
+      return response
+        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+        .body(ByteArrayResource(deckPluginService.getCompressedContent(pluginAsset)))
+    }
+    return response.body(FileSystemResource(pluginAsset.file))
   }
 
   @ExceptionHandler(CacheNotReadyException::class)
@@ -72,4 +96,31 @@ class DeckPluginsController(
   ) {
     response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.message)
   }
+
+  /**
+   * Either representation of the asset matches, the content behind both only changes if the asset is re-downloaded.
+   */
+  private fun matchesETag(ifNoneMatch: String?, pluginAsset: DeckPluginService.PluginAsset): Boolean =
+    ifNoneMatch?.split(",")?.map { it.trim().removePrefix("W/") }?.any {
+      it == pluginAsset.etag || it == pluginAsset.gzipEtag || it == "*"
+    } ?: false
+
+  /**
+   * @return true if gzip is listed as an acceptable content coding, and not refused with a quality of 0
+   */
+  private fun acceptsGzip(acceptEncoding: String?): Boolean =
+    acceptEncoding?.split(",")?.any { coding ->
+      val parameters = coding.split(";").map { it.trim() }
+      parameters[0].equals("gzip", ignoreCase = true) && parameters.drop(1).none { isZeroQuality(it) }
+    } ?: false
+
+  private fun isZeroQuality(parameter: String): Boolean =
+    parameter.startsWith("q=", ignoreCase = true) && parameter.substring(2).trim().toDoubleOrNull() == 0.0
+
+  companion object {
+    private val CACHE_CONTROL = CacheControl
+      .maxAge(365, TimeUnit.DAYS)
+      .cachePrivate()
+      .headerValue + ", immutable"
+  }
 }
@@ -38,6 +38,10 @@ import strikt.assertions.isEmpty
 import strikt.assertions.isEqualTo
 import java.nio.file.Path
 import java.util.Optional
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 class DeckPluginCacheTest : JUnit5Minutests {
 
@@ -69,7 +73,9 @@ class DeckPluginCacheTest : JUnit5Minutests {
       }
       test("throw Exception when URL does not work without strict loading mode") {
         every { springStrictPluginLoaderStatusProvider.isStrictPluginLoading() } returns false
-        every { updateManager.downloadPluginRelease(any(), any()) } returns Paths.get("/dev/null") andThenThrows PluginRuntimeException("error downloading plugin")
+        // downloads happen in parallel, so fail a specific plugin rather than relying on call order
+        every { updateManager.downloadPluginRelease("io.spinnaker.hello", any()) } returns Paths.get("/dev/null")
+        every { updateManager.downloadPluginRelease("io.spinnaker.goodbye", any()) } throws PluginRuntimeException("error downloading plugin")
 
         subject.refresh()
 
@@ -97,6 +103,51 @@ class DeckPluginCacheTest : JUnit5Minutests {
           .isEmpty()
       }
     }
+
+    context("downloading") {
+      test("concurrent requests for the same plugin version share a single download") {
+        val downloadStarted = CountDownLatch(1)
+        val releaseDownload = CountDownLatch(1)
+        every { updateManager.downloadPluginRelease(any(), any()) } answers {
+          downloadStarted.countDown()
+          releaseDownload.await(10, TimeUnit.SECONDS)
+          Paths.get("/dev/null")
+        }
+
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+          val requests = (1..4).map {
+            executor.submit(Callable { subject.getOrDownload("io.spinnaker.hello", "1.0.0") })
+          }
+          downloadStarted.await(10, TimeUnit.SECONDS)
+          releaseDownload.countDown()
+
+          val paths = requests.map { it.get(10, TimeUnit.SECONDS) }.toSet()
+
+          verify(exactly = 1) { updateManager.downloadPluginRelease("io.spinnaker.hello", "1.0.0") }
+          expectThat(paths).hasSize(1)
+          expectThat(paths.first()?.resolve("index.js")?.toFile()?.exists()).isEqualTo(true)
+        } finally {
+          executor.shutdownNow()
+        }
+      }
+
+      test("a plugin version cached by someone else during the download is used as-is") {
+        val cachePath = pluginsDir.resolve("io.spinnaker.hello/1.0.0")
+        every { updateManager.downloadPluginRelease(any(), any()) } answers {
+          // ie. another gate sharing the cache directory
+          Files.createDirectories(cachePath)
+          cachePath.resolve("index.js").toFile().writeText("cached elsewhere")
+          Paths.get("/dev/null")
+        }
+
+        val path = subject.getOrDownload("io.spinnaker.hello", "1.0.0")
+
+        expectThat(path).isEqualTo(cachePath)
+        expectThat(cachePath.resolve("index.js").toFile().readText()).isEqualTo("cached elsewhere")
+        expectThat(pluginsDir.resolve("io.spinnaker.hello").toFile().list()!!.toList()).isEqualTo(listOf("1.0.0"))
+      }
+    }
   }
 
   private inner class Fixture {
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.gate.plugins.deck
+
+import com.netflix.spectator.api.NoopRegistry
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import io.mockk.every
+import io.mockk.mockk
+import java.io.File
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.GZIPInputStream
+import org.springframework.core.io.FileSystemResource
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import strikt.api.expectThat
+import strikt.assertions.contains
+import strikt.assertions.endsWith
+import strikt.assertions.isA
+import strikt.assertions.isEqualTo
+import strikt.assertions.isNotEqualTo
+import strikt.assertions.isNotNull
+import strikt.assertions.isNull
+import strikt.assertions.startsWith
+
+class DeckPluginsControllerTest : JUnit5Minutests {
+
+  fun tests() = rootContext<Fixture> {
+    fixture { Fixture() }
+
+    after {
+      pluginDir.toFile().deleteRecursively()
+    }
+
+    test("assets are streamed from disk with a strong etag and immutable cache headers") {
+      val response = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", null, null)
+
+      expectThat(response) {
+        get { statusCode }.isEqualTo(HttpStatus.OK)
+        get { headers.eTag }.isNotNull().startsWith("\"io.spinnaker.hello@1.0.0-")
+        get { headers.cacheControl }.isNotNull().contains("immutable")
+        get { headers.getFirst(HttpHeaders.CONTENT_TYPE) }.isEqualTo("application/javascript")
+        get { body }.isA<FileSystemResource>()
+      }
+    }
+
+    test("a matching If-None-Match is answered with 304 and no body") {
+      val etag = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", null, null).headers.eTag
+
+      val response = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", "\"other\", $etag", null)
+
+      expectThat(response) {
+        get { statusCode }.isEqualTo(HttpStatus.NOT_MODIFIED)
+        get { headers.eTag }.isEqualTo(etag)
+        get { body }.isNull()
+      }
+    }
+
+    test("a 304 varies by Accept-Encoding and carries the etag of the negotiated representation") {
+      val etag = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", null, null).headers.eTag
+
+      val response = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", etag, "gzip")
+
+      expectThat(response) {
+        get { statusCode }.isEqualTo(HttpStatus.NOT_MODIFIED)
+        get { headers.eTag }.isEqualTo(etag!!.removeSuffix("\"") + "-gzip\"")
+        get { headers.vary }.isEqualTo(listOf(HttpHeaders.ACCEPT_ENCODING))
+      }
+    }
+
+    test("clients accepting gzip are served pre-compressed content, with its own etag") {
+      val identity = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", null, null)
+      val response = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", null, "br, gzip;q=0.9")
+
+      expectThat(response) {
+        get { headers.getFirst(HttpHeaders.CONTENT_ENCODING) }.isEqualTo("gzip")
+        get { headers.eTag }.isNotNull().endsWith("-gzip\"")
+        get { headers.eTag }.isNotEqualTo(identity.headers.eTag)
+        get { GZIPInputStream(body!!.inputStream).readBytes().decodeToString() }.isEqualTo(CONTENT)
+      }
+    }
+
+    test("clients refusing gzip with a quality of 0 are served the asset as-is") {
+      val response = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", null, "gzip;q=0, identity")
+
+      expectThat(response) {
+        get { headers.getFirst(HttpHeaders.CONTENT_ENCODING) }.isNull()
+        get { body }.isA<FileSystemResource>()
+      }
+    }
+
+    test("a re-downloaded asset is compressed again") {
+      subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", null, "gzip")
+
+      File(pluginDir.toFile(), "index.js").writeText(UPDATED_CONTENT)
+      val response = subject.getPluginAsset("io.spinnaker.hello", "1.0.0", "index.js", null, "gzip")
+
+      expectThat(GZIPInputStream(response.body!!.inputStream).readBytes().decodeToString()).isEqualTo(UPDATED_CONTENT)
+    }
+  }
+
+  private inner class Fixture {
+    val pluginDir: Path = Files.createTempDirectory("deck-plugin")
+    val pluginCache: DeckPluginCache = mockk(relaxed = true)
+    val subject = DeckPluginsController(DeckPluginService(pluginCache, NoopRegistry()))
+
+    init {
+      File(pluginDir.toFile(), "index.js").writeText(CONTENT)
+      every { pluginCache.isCachePopulated() } returns true
+      every { pluginCache.getOrDownload("io.spinnaker.hello", "1.0.0") } returns pluginDir
+    }
+  }
+
+  companion object {
+    private const val CONTENT = "export const plugin = { name: 'hello' };"
+    private const val UPDATED_CONTENT = "export const plugin = { name: 'hello', version: 2 };"
+  }
+}
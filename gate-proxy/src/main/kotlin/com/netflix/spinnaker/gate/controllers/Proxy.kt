@@ -16,11 +16,17 @@
 
 package com.netflix.spinnaker.gate.controllers
 
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.config.DefaultServiceEndpoint
 import com.netflix.spinnaker.config.okhttp3.OkHttpClientProvider
 import com.netflix.spinnaker.gate.api.extension.ProxyConfig
+import com.netflix.spinnaker.kork.exceptions.SystemException
+import okhttp3.ConnectionPool
 import okhttp3.OkHttpClient
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpStatus
+import org.springframework.web.bind.annotation.ResponseStatus
+import java.util.concurrent.Semaphore
 import java.util.concurrent.TimeUnit
 
 internal class Proxy(val config: ProxyConfig) {
@@ -30,21 +36,62 @@ internal class Proxy(val config: ProxyConfig) {
 
   var okHttpClient = OkHttpClient()
 
+  /**
+   * Bounds the number of in-flight requests (and thus servlet threads) a single proxy can occupy,
+   * null if unlimited.
+   */
+  private val concurrencyLimit = config.maxConcurrentRequests?.let { Semaphore(it) }
+
   /**
    * Initialize the underlying [OkHttpClient].
    */
-  fun init(okHttpClientProvider: OkHttpClientProvider) : Proxy {
+  fun init(okHttpClientProvider: OkHttpClientProvider, registry: Registry) : Proxy {
     val okHttpClient = okHttpClientProvider.getClient(DefaultServiceEndpoint(
       "proxy__${config.id}", config.uri, config.additionalAttributes, false, false
     ))
 
+    val connectionPool = ConnectionPool(config.maxIdleConnections, config.keepAliveMs, TimeUnit.MILLISECONDS)
+
     this.okHttpClient = okHttpClient
       .newBuilder()
+      .connectionPool(connectionPool)
       .connectTimeout(config.connectTimeoutMs, TimeUnit.MILLISECONDS)
       .readTimeout(config.readTimeoutMs, TimeUnit.MILLISECONDS)
       .writeTimeout(config.writeTimeoutMs, TimeUnit.MILLISECONDS)
       .build()
 
+    val connectionsId = registry.createId("proxy.connections").withTag("proxy", config.id)
+    registry.gauge(connectionsId.withTag("state", "total"), connectionPool) { it.connectionCount().toDouble() }
+    registry.gauge(connectionsId.withTag("state", "idle"), connectionPool) { it.idleConnectionCount().toDouble() }
+
+    if (concurrencyLimit != null) {
+      registry.gauge(registry.createId("proxy.inFlightRequests").withTag("proxy", config.id), concurrencyLimit) {
+        (config.maxConcurrentRequests - it.availablePermits()).toDouble()
+      }
+    }
+
     return this
   }
+
+  /**
+   * Invoke [block] once capacity is available, waiting up to `maxQueueWaitMs` before rejecting.
+   */
+  fun <T> withCapacity(block: () -> T): T {
+    val limit = concurrencyLimit ?: return block()
+
+    if (!limit.tryAcquire(config.maxQueueWaitMs, TimeUnit.MILLISECONDS)) {
+      throw ProxyCapacityExceededException(
+        "Proxy '${config.id}' is at capacity (maxConcurrentRequests: ${config.maxConcurrentRequests})"
+      )
+    }
+
+    try {
+      return block()
+    } finally {
+      limit.release()
+    }
+  }
 }
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+internal class ProxyCapacityExceededException(message: String) : SystemException(message)
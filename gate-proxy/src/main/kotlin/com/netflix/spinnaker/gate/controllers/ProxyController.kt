@@ -25,13 +25,19 @@ import com.netflix.spinnaker.gate.api.extension.ProxyConfigProvider
 import com.netflix.spinnaker.kork.web.exceptions.InvalidRequestException
 import com.netflix.spinnaker.kork.web.interceptors.Criticality
 import com.netflix.spinnaker.security.AuthenticatedRequest
+import okhttp3.HttpUrl
 import okhttp3.Request
+import okhttp3.RequestBody
 import okhttp3.internal.http.HttpMethod
 import okhttp3.MediaType.Companion.toMediaType
+import okhttp3.MediaType.Companion.toMediaTypeOrNull
 import okhttp3.RequestBody.Companion.toRequestBody
+import okio.BufferedSink
+import okio.source
 import java.net.SocketException
 import java.util.stream.Collectors
 import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
 import org.slf4j.LoggerFactory
 import org.springframework.beans.factory.ObjectProvider
 import org.springframework.http.HttpHeaders
@@ -47,6 +53,8 @@ import org.springframework.web.bind.annotation.RequestMethod.PUT
 import org.springframework.web.bind.annotation.RequestParam
 import org.springframework.web.bind.annotation.RestController
 import org.springframework.web.servlet.HandlerMapping
+import org.springframework.web.util.ContentCachingResponseWrapper
+import org.springframework.web.util.WebUtils
 
 @Criticality(Criticality.Value.LOW)
 @RestController
@@ -60,7 +68,8 @@ class ProxyController(
   private val log = LoggerFactory.getLogger(javaClass)
 
   /**
-   * A single entry cache containing the set of initialized proxies.
+   * A single entry cache containing the set of initialized proxies, keyed by lower-cased id. The
+   * first proxy configured with a given id wins, any later duplicates are ignored.
    *
    * Extension point implementations are not guaranteed to be available at initialization time,
    * so a [CacheBuilder] is used to ensure we only perform initialization once.
@@ -73,28 +82,35 @@ class ProxyController(
       proxyConfigProviders?.forEach {
         it.proxyConfigs.forEach { proxyConfig ->
           try {
-            proxiesById.put(proxyConfig.id, Proxy(proxyConfig).init(okHttpClientProvider))
+            val existing = proxiesById[proxyConfig.id.lowercase()]
+            if (existing != null) {
+              log.warn("Duplicate proxy id '${proxyConfig.id}', keeping the proxy configured as '${existing.config.id}'")
+            } else {
+              proxiesById[proxyConfig.id.lowercase()] = Proxy(proxyConfig).init(okHttpClientProvider, registry)
+            }
           } catch (e: Exception) {
             log.error("Failed to initialize proxy (id: ${proxyConfig.id})", e)
           }
         }
       }
 
-      log.info("Initialized ${proxiesById.size} proxies (${proxiesById.keys.joinToString()})")
+      log.info("Initialized ${proxiesById.size} proxies (${proxiesById.values.joinToString { it.config.id }})")
       return@from proxiesById
     }
   )
 
   val proxyInvocationsId = registry.createId("proxy.invocations")
+  val proxyRejectionsId = registry.createId("proxy.rejections")
 
   @RequestMapping(value = ["/{proxy}/**"], method = [DELETE, GET, POST, PUT])
   fun any(
     @PathVariable(value = "proxy") proxyId: String,
     @RequestParam requestParams: Map<String, String>,
-    httpServletRequest: HttpServletRequest
-  ): ResponseEntity<Any> {
+    httpServletRequest: HttpServletRequest,
+    httpServletResponse: HttpServletResponse
+  ): ResponseEntity<Any>? {
     return AuthenticatedRequest.allowAnonymous {
-      return@allowAnonymous request(proxyId, requestParams, httpServletRequest)
+      return@allowAnonymous request(proxyId, requestParams, httpServletRequest, httpServletResponse)
     }
   }
 
@@ -109,10 +125,10 @@ class ProxyController(
   private fun request(
     proxyId: String,
     requestParams: Map<String, String>,
-    request: HttpServletRequest
-  ): ResponseEntity<Any> {
-    val proxy = proxies()
-      .find { it.config.id.equals(proxyId, true) }
+    request: HttpServletRequest,
+    response: HttpServletResponse
+  ): ResponseEntity<Any>? {
+    val proxy = proxiesCache.get("all")[proxyId.lowercase()]
       ?: throw InvalidRequestException("No proxy config found with id '$proxyId'")
     val proxyConfig = proxy.config
 
@@ -127,6 +143,26 @@ class ProxyController(
     }
     val proxiedUrl = proxiedUrlBuilder.build()
 
+    try {
+      return proxy.withCapacity {
+        if (proxyConfig.streaming == true) {
+          stream(proxy, proxyId, proxiedUrl, request, response)
+        } else {
+          buffer(proxy, proxyId, proxiedUrl, request)
+        }
+      }
+    } catch (e: ProxyCapacityExceededException) {
+      registry.counter(proxyRejectionsId.withTag("proxy", proxyId)).increment()
+      throw e
+    }
+  }
+
+  private fun buffer(
+    proxy: Proxy,
+    proxyId: String,
+    proxiedUrl: HttpUrl,
+    request: HttpServletRequest
+  ): ResponseEntity<Any> {
     var statusCode = 0
     var contentType = "text/plain"
     var responseBody: String
@@ -155,13 +191,7 @@ class ProxyController(
       responseBody = e.toString()
     }
 
-    registry.counter(
-      proxyInvocationsId
-        .withTag("proxy", proxyId)
-        .withTag("method", request.method)
-        .withTag("status", "${statusCode.toString()[0]}xx")
-        .withTag("statusCode", statusCode.toString())
-    ).increment()
+    recordInvocation(proxyId, request.method, statusCode)
 
     val responseObj = if (responseBody.startsWith("{")) {
       objectMapper.readValue(responseBody, Map::class.java)
@@ -176,17 +206,107 @@ class ProxyController(
     httpHeaders.put("X-Proxy-Status-Code", mutableListOf(statusCode.toString()))
     httpHeaders.put("X-Proxy-Url", mutableListOf(proxiedUrl.toString()))
 
-    val status = if (statusCode >= 500 || statusCode == 0) {
+    return ResponseEntity(responseObj, httpHeaders, toResponseStatus(statusCode))
+  }
+
+  /**
+   * Relay the request and response bodies as bytes, without buffering them in memory or
+   * round-tripping them through Jackson.
+   *
+   * The response is written directly to the servlet response (returning `null` to Spring MVC), so
+   * upstream content types and lengths are preserved as-is.
+   */
+  private fun stream(
+    proxy: Proxy,
+    proxyId: String,
+    proxiedUrl: HttpUrl,
+    request: HttpServletRequest,
+    response: HttpServletResponse
+  ): ResponseEntity<Any>? {
+    val method = request.method
+    val body = if (HttpMethod.permitsRequestBody(method) && request.contentType != null) {
+      ServletRequestBody(request)
+    } else {
+      null
+    }
+
+    val upstreamResponse = try {
+      proxy.okHttpClient.newCall(
+        Request.Builder().url(proxiedUrl).method(method, body).build()
+      ).execute()
+    } catch (e: Exception) {
+      log.error("Exception processing proxy request", e)
+      val statusCode = if (e is SocketException) HttpStatus.GATEWAY_TIMEOUT.value() else 0
+      recordInvocation(proxyId, method, statusCode)
+
+      val httpHeaders = HttpHeaders()
+      httpHeaders.contentType = MediaType.TEXT_PLAIN
+      httpHeaders.put("X-Proxy-Status-Code", mutableListOf(statusCode.toString()))
+      httpHeaders.put("X-Proxy-Url", mutableListOf(proxiedUrl.toString()))
+      return ResponseEntity(e.toString(), httpHeaders, toResponseStatus(statusCode))
+    }
+
+    upstreamResponse.use {
+      recordInvocation(proxyId, method, it.code)
+
+      // bypass any response buffering (ie. ContentCachingFilter), upstream provides its own framing
+      val target = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper::class.java)
+        ?.response as HttpServletResponse?
+        ?: response
+
+      target.status = toResponseStatus(it.code).value()
+      target.contentType = it.header("Content-Type") ?: MediaType.TEXT_PLAIN_VALUE
+      target.setHeader("X-Proxy-Status-Code", it.code.toString())
+      target.setHeader("X-Proxy-Url", proxiedUrl.toString())
+
+      val responseBody = it.body
+      if (responseBody != null) {
+        if (responseBody.contentLength() >= 0) {
+          target.setContentLengthLong(responseBody.contentLength())
+        }
+        responseBody.byteStream().use { input -> input.transferTo(target.outputStream) }
+      }
+      target.flushBuffer()
+    }
+
+    return null
+  }
+
+  private fun recordInvocation(proxyId: String, method: String, statusCode: Int) {
+    registry.counter(
+      proxyInvocationsId
+        .withTag("proxy", proxyId)
+        .withTag("method", method)
+        .withTag("status", "${statusCode.toString()[0]}xx")
+        .withTag("statusCode", statusCode.toString())
+    ).increment()
+  }
+
+  private fun toResponseStatus(statusCode: Int): HttpStatus {
+    return if (statusCode >= 500 || statusCode == 0) {
       // an upstream 5xx should manifest as HTTP 502 - Bad Gateway
       HttpStatus.BAD_GATEWAY
     } else {
       HttpStatus.valueOf(statusCode)
     }
-
-    return ResponseEntity(responseObj, httpHeaders, status)
   }
 
   private fun proxies() = proxiesCache.get("all").values
 
   data class SimpleProxyConfig(val id: String, val uri: String)
+
+  /**
+   * A one-shot [RequestBody] that copies the inbound servlet request body straight to the upstream.
+   */
+  internal class ServletRequestBody(private val request: HttpServletRequest) : RequestBody() {
+    override fun contentType() = request.contentType?.toMediaTypeOrNull()
+
+    override fun contentLength() = request.contentLengthLong
+
+    override fun isOneShot() = true
+
+    override fun writeTo(sink: BufferedSink) {
+      request.inputStream.source().use { sink.writeAll(it) }
+    }
+  }
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.controllers
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.config.okhttp3.OkHttpClientProvider
+import com.netflix.spinnaker.gate.api.extension.ProxyConfig
+import com.netflix.spinnaker.gate.api.extension.ProxyConfigProvider
+import com.netflix.spinnaker.kork.web.exceptions.InvalidRequestException
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import io.mockk.every
+import io.mockk.mockk
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okio.Buffer
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.http.HttpStatus
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.web.bind.annotation.ResponseStatus
+import org.springframework.web.servlet.HandlerMapping
+import org.springframework.web.util.ContentCachingResponseWrapper
+import strikt.api.expectThat
+import strikt.api.expectThrows
+import strikt.assertions.isEqualTo
+import strikt.assertions.isNull
+import java.util.concurrent.TimeUnit
+import kotlin.concurrent.thread
+
+class ProxyControllerTest : JUnit5Minutests {
+
+  fun tests() = rootContext<Fixture> {
+    fixture { Fixture() }
+
+    after { server.shutdown() }
+
+    context("streaming") {
+      test("relays request and response bodies byte for byte") {
+        val requestBytes = ByteArray(256) { it.toByte() }
+        val responseBytes = ByteArray(256) { (255 - it).toByte() }
+        server.enqueue(
+          MockResponse()
+            .setHeader("Content-Type", "application/octet-stream")
+            .setBody(Buffer().write(responseBytes))
+        )
+
+        val request = request("POST", "/proxies/test/upload").apply {
+          contentType = "application/octet-stream"
+          setContent(requestBytes)
+        }
+        val response = MockHttpServletResponse()
+
+        expectThat(subject.any("test", emptyMap(), request, response)).isNull()
+
+        val upstreamRequest = server.takeRequest()
+        expectThat(upstreamRequest.path).isEqualTo("/api/upload")
+        expectThat(upstreamRequest.getHeader("Content-Type")).isEqualTo("application/octet-stream")
+        expectThat(upstreamRequest.body.readByteArray().toList()).isEqualTo(requestBytes.toList())
+
+        expectThat(response.status).isEqualTo(200)
+        expectThat(response.contentAsByteArray.toList()).isEqualTo(responseBytes.toList())
+      }
+
+      test("preserves the upstream content type and length") {
+        server.enqueue(
+          MockResponse()
+            .setHeader("Content-Type", "application/vnd.example+json;charset=UTF-8")
+            .setBody("""{"key":"value"}""")
+        )
+
+        val response = MockHttpServletResponse()
+        subject.any("test", emptyMap(), request("GET", "/proxies/test/resource"), response)
+
+        expectThat(response.contentType).isEqualTo("application/vnd.example+json;charset=UTF-8")
+        expectThat(response.contentLength).isEqualTo(15)
+        expectThat(response.contentAsString).isEqualTo("""{"key":"value"}""")
+        expectThat(response.getHeader("X-Proxy-Status-Code")).isEqualTo("200")
+        expectThat(response.getHeader("X-Proxy-Url")).isEqualTo(server.url("/api/resource").toString())
+      }
+
+      test("relays upstream client errors, and upstream server errors as bad gateway") {
+        server.enqueue(MockResponse().setResponseCode(404).setBody("not found"))
+        server.enqueue(MockResponse().setResponseCode(503).setBody("unavailable"))
+
+        val notFound = MockHttpServletResponse()
+        subject.any("test", emptyMap(), request("GET", "/proxies/test/resource"), notFound)
+
+        expectThat(notFound.status).isEqualTo(404)
+        expectThat(notFound.getHeader("X-Proxy-Status-Code")).isEqualTo("404")
+        expectThat(notFound.contentAsString).isEqualTo("not found")
+
+        val unavailable = MockHttpServletResponse()
+        subject.any("test", emptyMap(), request("GET", "/proxies/test/resource"), unavailable)
+
+        expectThat(unavailable.status).isEqualTo(502)
+        expectThat(unavailable.getHeader("X-Proxy-Status-Code")).isEqualTo("503")
+        expectThat(unavailable.contentAsString).isEqualTo("unavailable")
+        expectThat(
+          registry.counter(
+            registry.createId("proxy.invocations")
+              .withTag("proxy", "test")
+              .withTag("method", "GET")
+              .withTag("status", "5xx")
+              .withTag("statusCode", "503")
+          ).count()
+        ).isEqualTo(1)
+      }
+
+      test("writes past any response caching wrapper") {
+        server.enqueue(MockResponse().setBody("streamed"))
+
+        val nativeResponse = MockHttpServletResponse()
+        val cachingResponse = ContentCachingResponseWrapper(nativeResponse)
+        subject.any("test", emptyMap(), request("GET", "/proxies/test/resource"), cachingResponse)
+
+        expectThat(nativeResponse.contentAsString).isEqualTo("streamed")
+        expectThat(cachingResponse.contentSize).isEqualTo(0)
+      }
+    }
+
+    context("proxy lookup") {
+      test("finds proxies by id, case-insensitively") {
+        proxyConfigs.add(proxyConfig("Mixed-Case", "/mixed"))
+        server.enqueue(MockResponse().setBody("mixed"))
+
+        val response = MockHttpServletResponse()
+        subject.any("mixed-CASE", emptyMap(), request("GET", "/proxies/mixed-CASE/resource"), response)
+
+        expectThat(server.takeRequest().path).isEqualTo("/mixed/resource")
+        expectThat(response.contentAsString).isEqualTo("mixed")
+      }
+
+      test("keeps the first of several proxies with the same id") {
+        proxyConfigs.add(proxyConfig("TEST", "/duplicate"))
+        server.enqueue(MockResponse().setBody("first"))
+
+        subject.any("test", emptyMap(), request("GET", "/proxies/test/resource"), MockHttpServletResponse())
+
+        expectThat(server.takeRequest().path).isEqualTo("/api/resource")
+        expectThat(subject.list()).isEqualTo(
+          listOf(ProxyController.SimpleProxyConfig("test", server.url("/api").toString()))
+        )
+      }
+
+      test("raises InvalidRequestException when the proxy does not exist") {
+        expectThrows<InvalidRequestException> {
+          subject.any("does-not-exist", emptyMap(), request("GET", "/proxies/does-not-exist/resource"), MockHttpServletResponse())
+        }
+      }
+    }
+
+    context("capacity") {
+      test("rejects requests with a 503 once maxConcurrentRequests are in flight") {
+        proxyConfigs[0].apply {
+          maxConcurrentRequests = 1
+          maxQueueWaitMs = 0L
+        }
+        server.enqueue(MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS).setBody("slow"))
+
+        val inFlight = thread {
+          subject.any("test", emptyMap(), request("GET", "/proxies/test/slow"), MockHttpServletResponse())
+        }
+        server.takeRequest()
+
+        expectThrows<ProxyCapacityExceededException> {
+          subject.any("test", emptyMap(), request("GET", "/proxies/test/rejected"), MockHttpServletResponse())
+        }
+        inFlight.join()
+
+        expectThat(
+          ProxyCapacityExceededException::class.java.getAnnotation(ResponseStatus::class.java).value
+        ).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+        expectThat(
+          registry.counter(registry.createId("proxy.rejections").withTag("proxy", "test")).count()
+        ).isEqualTo(1)
+        expectThat(server.requestCount).isEqualTo(1)
+      }
+    }
+  }
+
+  private inner class Fixture {
+    val server = MockWebServer().apply { start() }
+    val registry = DefaultRegistry()
+
+    val proxyConfigs = mutableListOf(proxyConfig("test"))
+
+    val subject by lazy {
+      val okHttpClientProvider = mockk<OkHttpClientProvider> {
+        every { getClient(any()) } returns OkHttpClient()
+      }
+      ProxyController(ObjectMapper(), registry, okHttpClientProvider, ProxyConfigProviders(proxyConfigs))
+    }
+
+    fun proxyConfig(id: String, path: String = "/api") = ProxyConfig().apply {
+      this.id = id
+      this.uri = server.url(path).toString()
+      this.streaming = true
+    }
+
+    fun request(method: String, path: String) = MockHttpServletRequest(method, path).apply {
+      setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path)
+    }
+  }
+
+  private class ProxyConfigProviders(
+    private val proxyConfigs: List<ProxyConfig>
+  ) : ObjectProvider<List<ProxyConfigProvider>> {
+    private val providers = listOf(object : ProxyConfigProvider {
+      override fun getProxyConfigs(): List<ProxyConfig> = proxyConfigs
+    })
+
+    override fun getIfUnique(): List<ProxyConfigProvider>? = providers
+    override fun getObject(vararg args: Any?): List<ProxyConfigProvider> = providers
+    override fun getObject(): List<ProxyConfigProvider> = providers
+    override fun getIfAvailable(): List<ProxyConfigProvider>? = providers
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.controllers
+
+import com.netflix.spinnaker.gate.api.extension.ProxyConfig
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import strikt.api.expectThat
+import strikt.api.expectThrows
+import strikt.assertions.isEqualTo
+import strikt.assertions.isGreaterThanOrEqualTo
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.concurrent.thread
+
+class ProxyTest : JUnit5Minutests {
+
+  fun tests() = rootContext<ProxyConfig> {
+    fixture {
+      ProxyConfig().apply {
+        id = "test"
+        uri = "http://localhost"
+      }
+    }
+
+    context("without maxConcurrentRequests") {
+      test("never rejects") {
+        val proxy = Proxy(this)
+
+        expectThat(proxy.withCapacity { proxy.withCapacity { "nested" } }).isEqualTo("nested")
+      }
+    }
+
+    context("with maxConcurrentRequests") {
+      modify {
+        maxConcurrentRequests = 1
+      }
+
+      test("rejects once capacity is exhausted, after waiting maxQueueWaitMs") {
+        maxQueueWaitMs = 100L
+        val proxy = Proxy(this)
+
+        proxy.withCapacity {
+          val start = System.nanoTime()
+          expectThrows<ProxyCapacityExceededException> {
+            proxy.withCapacity { }
+          }
+          expectThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(100L)
+        }
+      }
+
+      test("waits up to maxQueueWaitMs for capacity to be released") {
+        maxQueueWaitMs = 10_000L
+        val proxy = Proxy(this)
+        val acquired = CountDownLatch(1)
+
+        val holder = thread {
+          proxy.withCapacity {
+            acquired.countDown()
+            Thread.sleep(100)
+          }
+        }
+        acquired.await()
+
+        expectThat(proxy.withCapacity { "queued" }).isEqualTo("queued")
+        holder.join()
+      }
+
+      test("releases capacity when the request fails") {
+        val proxy = Proxy(this)
+
+        expectThrows<IllegalStateException> {
+          proxy.withCapacity { throw IllegalStateException("upstream failure") }
+        }
+        expectThat(proxy.withCapacity { "released" }).isEqualTo("released")
+      }
+    }
+  }
+}
@@ -30,4 +30,11 @@ public class ApplicationConfigurationProperties {
    * source of truth for applications
    */
   private boolean useFront50AsSourceOfTruth;
+
+  /**
+   * defaults to false. When enabled, the background application refresh only re-merges those
+   * applications whose front50 or clouddriver representation has changed since the previous
+   * refresh. Unchanged applications are carried over from the previous refresh as-is.
+   */
+  private boolean incrementalRefresh;
 }
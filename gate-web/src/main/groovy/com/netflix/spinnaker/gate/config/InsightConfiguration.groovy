@@ -21,9 +21,13 @@ import groovy.text.GStringTemplateEngine
 import groovy.text.Template
 import groovy.transform.CompileStatic
 import groovy.util.logging.Slf4j
+import org.codehaus.groovy.runtime.InvokerHelper
 import org.springframework.boot.context.properties.ConfigurationProperties
 import org.springframework.stereotype.Component
 
+import java.util.regex.Matcher
+import java.util.regex.Pattern
+
 import static net.logstash.logback.argument.StructuredArguments.value
 
 @Slf4j
@@ -36,8 +40,68 @@ class InsightConfiguration {
   List<Link> instance = []
   List<Link> loadBalancer = []
 
+  /**
+   * The values available to insight links, as a stack of maps that is looked up from the most
+   * recently added map down (so later maps take precedence, as they would when merged with
+   * {@code +}) without copying any of them.
+   */
+  static class InsightContext {
+    private final List<Map<String, ?>> layers = []
+    private final List<Boolean> stringValuesOnly = []
+
+    /** Add {@code values}, taking precedence over those added before. */
+    InsightContext with(Map<String, ?> values) {
+      return addLayer(values, false)
+    }
+
+    /** Add {@code values}, with any non-String value being treated as an empty String. */
+    InsightContext withStringValues(Map<String, ?> values) {
+      return addLayer(values, true)
+    }
+
+    private InsightContext addLayer(Map<String, ?> values, boolean stringsOnly) {
+      if (values) {
+        layers.add(values)
+        stringValuesOnly.add(stringsOnly)
+      }
+      return this
+    }
+
+    Object get(String key) {
+      for (int i = layers.size() - 1; i >= 0; i--) {
+        Map<String, ?> layer = layers.get(i)
+        if (layer.containsKey(key)) {
+          Object value = layer.get(key)
+          return stringValuesOnly.get(i) && !(value instanceof String) ? "" : value
+        }
+      }
+      return null
+    }
+
+    /** @return a merged copy, for templates that can only be evaluated against a single map */
+    Map<String, Object> toMap() {
+      Map<String, Object> merged = new HashMap<>()
+      for (Map<String, ?> layer : layers) {
+        for (String key : layer.keySet()) {
+          merged.put(key, null)
+        }
+      }
+      for (String key : merged.keySet()) {
+        merged.put(key, get(key))
+      }
+      return merged
+    }
+  }
+
   static class Link {
     private static final GStringTemplateEngine templateEngine = new GStringTemplateEngine()
+    private static final Pattern PLACEHOLDER = Pattern.compile('\\$\\{([A-Za-z_][A-Za-z0-9_]*)}')
+
+    /**
+     * Literal segments of the url, interleaved with the names of the placeholders between them, or
+     * null if the url is not just literals and ${name} placeholders (ie. it contains expressions).
+     */
+    private String[] segments
     private Template template
 
     String url
@@ -45,12 +109,16 @@ class InsightConfiguration {
     String cloudProvider
 
     Map applyContext(Map<String, String> context) {
-      if (cloudProvider && cloudProvider != context.cloudProvider) {
+      return applyContext(new InsightContext().with(context))
+    }
+
+    Map applyContext(InsightContext context) {
+      if (cloudProvider && cloudProvider != context.get("cloudProvider")) {
         return null
       }
       try {
         return [
-          url  : template.make(context.withDefault { null }).toString(),
+          url  : segments != null ? render(context) : template.make(context.toMap().withDefault { null }).toString(),
           label: label
         ]
       } catch (Exception e) {
@@ -61,8 +129,50 @@ class InsightConfiguration {
 
     void setUrl(String url) {
       this.url = url
-      this.template = templateEngine.createTemplate(url)
+      this.segments = compile(url)
+      // urls with arbitrary expressions are rendered by the groovy template engine
+      this.template = segments == null ? templateEngine.createTemplate(url) : null
+    }
+
+    private String render(InsightContext context) {
+      StringBuilder rendered = new StringBuilder(url.length() + 64)
+      for (int i = 0; i < segments.length; i++) {
+        if (i % 2 == 0) {
+          rendered.append(segments[i])
+        } else {
+          // a missing value renders as "null", as it does in a GString
+          rendered.append(InvokerHelper.toString(context.get(segments[i])))
+        }
+      }
+      return rendered.toString()
+    }
+
+    /**
+     * @return the url split into [literal, placeholder name, literal, ...], or null if it can
+     *     only be rendered by the template engine
+     */
+    static String[] compile(String url) {
+      if (url == null) {
+        return null
+      }
+
+      List<String> segments = []
+      Matcher matcher = PLACEHOLDER.matcher(url)
+      int literalStart = 0
+      while (matcher.find()) {
+        segments.add(url.substring(literalStart, matcher.start()))
+        segments.add(matcher.group(1))
+        literalStart = matcher.end()
+      }
+      segments.add(url.substring(literalStart))
+
+      for (int i = 0; i < segments.size(); i += 2) {
+        String literal = segments.get(i)
+        if (literal.contains('$') || literal.contains('<%') || literal.contains('\\')) {
+          return null
+        }
+      }
+      return segments as String[]
     }
   }
 }
-
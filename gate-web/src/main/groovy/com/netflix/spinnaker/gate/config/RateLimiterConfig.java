@@ -16,6 +16,8 @@
 package com.netflix.spinnaker.gate.config;
 
 import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.gate.ratelimit.BatchedRedisRateLimiter;
+import com.netflix.spinnaker.gate.ratelimit.GcraRedisRateLimiter;
 import com.netflix.spinnaker.gate.ratelimit.RateLimitPrincipalProvider;
 import com.netflix.spinnaker.gate.ratelimit.RateLimiter;
 import com.netflix.spinnaker.gate.ratelimit.RateLimitingFilter;
@@ -42,14 +44,22 @@ public class RateLimiterConfig {
 
   @Bean
   @ConditionalOnExpression("${rate-limit.redis.enabled:false}")
-  RateLimiter redisRateLimiter(JedisPool jedisPool) {
-    return new RedisRateLimiter(jedisPool);
+  RateLimiter redisRateLimiter(JedisPool jedisPool, Registry registry) {
+    switch (rateLimiterConfiguration.getRedis().getLimiter()) {
+      case BATCHED:
+        return new BatchedRedisRateLimiter(jedisPool, registry);
+      case GCRA:
+        return new GcraRedisRateLimiter(jedisPool);
+      default:
+        return new RedisRateLimiter(jedisPool);
+    }
   }
 
   @Bean
   @ConditionalOnExpression("${rate-limit.redis.enabled:false}")
-  RateLimitPrincipalProvider redisRateLimiterPrincipalProvider(JedisPool jedisPool) {
-    return new RedisRateLimitPrincipalProvider(jedisPool, rateLimiterConfiguration);
+  RateLimitPrincipalProvider redisRateLimiterPrincipalProvider(
+      JedisPool jedisPool, Registry registry) {
+    return new RedisRateLimitPrincipalProvider(jedisPool, rateLimiterConfiguration, registry);
   }
 
   @Bean
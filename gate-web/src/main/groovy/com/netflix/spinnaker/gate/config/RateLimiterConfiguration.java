@@ -80,6 +80,9 @@ public class RateLimiterConfiguration {
    */
   private List<String> ignoring = new ArrayList<>();
 
+  /** Redis-backed rate limiting settings, only applicable when {@code redis.enabled} is true. */
+  private Redis redis = new Redis();
+
   public int getCapacity() {
     return capacity;
   }
@@ -144,6 +147,14 @@ public class RateLimiterConfiguration {
     this.ignoring = ignoring;
   }
 
+  public Redis getRedis() {
+    return redis;
+  }
+
+  public void setRedis(Redis redis) {
+    this.redis = redis;
+  }
+
   public int getFilterOrder() {
     return filterOrder;
   }
@@ -152,6 +163,110 @@ public class RateLimiterConfiguration {
     this.filterOrder = filterOrder;
   }
 
+  public static class Redis {
+    /** Whether rate limits and principal overrides should be read from (and counted in) Redis. */
+    private boolean enabled;
+
+    /**
+     * The {@link com.netflix.spinnaker.gate.ratelimit.RateLimiter} implementation to use.
+     *
+     * <p>DEFAULT - count every request in Redis synchronously.
+     *
+     * <p>BATCHED - count requests in memory and reconcile with Redis every {@code
+     * syncIntervalMs}, limits are approximately global across gate instances.
+     *
+     * <p>GCRA - count every request in Redis with a single atomic script invocation (generic cell
+     * rate algorithm), capacity is replenished continuously rather than once per rateSeconds.
+     */
+    private Limiter limiter = Limiter.DEFAULT;
+
+    /** How often (in milliseconds) BATCHED rate limit counts are synchronized with Redis. */
+    private long syncIntervalMs = 1000;
+
+    private PrincipalConfig principalConfig = new PrincipalConfig();
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Limiter getLimiter() {
+      return limiter;
+    }
+
+    public void setLimiter(Limiter limiter) {
+      this.limiter = limiter;
+    }
+
+    public long getSyncIntervalMs() {
+      return syncIntervalMs;
+    }
+
+    public void setSyncIntervalMs(long syncIntervalMs) {
+      this.syncIntervalMs = syncIntervalMs;
+    }
+
+    public PrincipalConfig getPrincipalConfig() {
+      return principalConfig;
+    }
+
+    public void setPrincipalConfig(PrincipalConfig principalConfig) {
+      this.principalConfig = principalConfig;
+    }
+
+    public enum Limiter {
+      DEFAULT,
+      BATCHED,
+      GCRA
+    }
+
+    public static class PrincipalConfig {
+      /**
+       * When enabled, per-principal capacities and rateSeconds as well as the enforcing, ignoring
+       * and learning settings are held in memory and reloaded from Redis periodically, rather
+       * than being read from Redis on every request.
+       */
+      private boolean cached;
+
+      /** How often (in milliseconds) the cached principal configuration is reloaded. */
+      private long refreshIntervalMs = 30000;
+
+      /**
+       * Additionally reload the cached principal configuration whenever Redis publishes a keyspace
+       * notification for one of its keys. Requires {@code notify-keyspace-events} to include
+       * {@code K$s}.
+       */
+      private boolean keyspaceNotifications;
+
+      public boolean isCached() {
+        return cached;
+      }
+
+      public void setCached(boolean cached) {
+        this.cached = cached;
+      }
+
+      public long getRefreshIntervalMs() {
+        return refreshIntervalMs;
+      }
+
+      public void setRefreshIntervalMs(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+      }
+
+      public boolean isKeyspaceNotifications() {
+        return keyspaceNotifications;
+      }
+
+      public void setKeyspaceNotifications(boolean keyspaceNotifications) {
+        this.keyspaceNotifications = keyspaceNotifications;
+      }
+    }
+  }
+
   // Spring doesn't enjoy principals that have dots in their name, so it can't be a map.
   public static class PrincipalOverride {
     private String principal;
@@ -16,6 +16,8 @@
 
 package com.netflix.spinnaker.gate.controllers
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.gate.security.ApplicationReadPermissions
 import com.netflix.spinnaker.gate.services.ApplicationService
 import com.netflix.spinnaker.gate.services.ExecutionHistoryService
 import com.netflix.spinnaker.gate.services.TaskService
@@ -27,8 +29,13 @@ import io.swagger.v3.oas.annotations.Parameter;
 
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.core.env.Environment
+import org.springframework.http.CacheControl
 import org.springframework.http.HttpEntity
-import org.springframework.security.access.prepost.PostFilter
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+import org.springframework.util.DigestUtils
 import org.springframework.web.bind.annotation.PathVariable
 import org.springframework.web.bind.annotation.RequestBody
 import org.springframework.web.bind.annotation.RequestHeader
@@ -37,6 +44,9 @@ import org.springframework.web.bind.annotation.RequestMethod
 import org.springframework.web.bind.annotation.RequestParam
 import org.springframework.web.bind.annotation.RestController
 
+import java.util.concurrent.atomic.AtomicReference
+import java.util.zip.GZIPOutputStream
+
 import static net.logstash.logback.argument.StructuredArguments.value
 
 @RequestMapping("/applications")
@@ -61,27 +71,247 @@ class ApplicationController {
   @Autowired
   Environment environment
 
+  /**
+   * Absent only in contexts without gate-core's security components, in which case no application
+   * is considered readable.
+   */
+  @Autowired(required = false)
+  ApplicationReadPermissions applicationReadPermissions
+
+  /**
+   * Used to pre-encode the unfiltered application list, which is otherwise serialized by the
+   * message converters on every request, and to derive its ETag.
+   */
+  @Autowired(required = false)
+  ObjectMapper objectMapper
+
+  private final AtomicReference<ApplicationListSnapshot> applicationListSnapshot = new AtomicReference<>()
+
+  /**
+   * Responses carry an ETag derived from the encoded application list (and, when filtered, from
+   * the applications that made it through the filters), so that every gate serving the same list
+   * hands out the same ETag, and a matching If-None-Match is answered with a 304.
+   *
+   * READ permission is resolved once for the whole listing rather than by a per application
+   * hasPermission() evaluation, see {@link ApplicationReadPermissions}. When every application is
+   * readable and no filters are requested the response is served from pre-encoded (and, if
+   * accepted, pre-compressed) bytes.
+   */
   @Operation(summary = "Retrieve a list of applications")
   @RequestMapping(method = RequestMethod.GET)
-  @PostFilter("hasPermission(filterObject.get('name'), 'APPLICATION', 'READ')")
-  List<HashMap<String, Object>> getAllApplications(
+  ResponseEntity<?> getAllApplications(
     @Parameter(name = "account", required = false, description = "filters results to only include applications deployed in the specified account")
     @RequestParam(value = "account", required = false) String account,
     @Parameter(name = "owner", required = false, description = "filters results to only include applications owned by the specified email")
-    @RequestParam(value = "owner", required = false) String owner) {
-    return applicationService.getAllApplications()
-      .findAll {
-        if (!account) {
-          return true
+    @RequestParam(value = "owner", required = false) String owner,
+    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    ApplicationListSnapshot snapshot = getApplicationListSnapshot(applicationService.getAllApplications())
+    ApplicationReadPermissions.ReadableApplications readable =
+      applicationReadPermissions?.forCurrentUser() ?: ApplicationReadPermissions.ReadableApplications.NONE
+
+    if (readable.canReadAll() && !account && !owner && objectMapper != null) {
+      // the gzip'd and identity bodies are different representations and need distinct ETags
+      boolean gzip = acceptsGzip(acceptEncoding)
+      String etag = gzip ? snapshot.gzipEtag : snapshot.etag
+      if (matchesETag(ifNoneMatch, snapshot.etag) || matchesETag(ifNoneMatch, snapshot.gzipEtag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .cacheControl(CACHE_CONTROL)
+          .eTag(etag)
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+          .build()
+      }
+
+      ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .cacheControl(CACHE_CONTROL)
+        .eTag(etag)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+      if (gzip) {
+        return response
+          .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+          .body(snapshot.compressedJson)
+      }
+      return response.body(snapshot.json)
+    }
+
+    ApplicationListSnapshot.Filtered filtered = snapshot.filter(
+      readable,
+      account ? account.toLowerCase() : null,
+      owner ? owner.toLowerCase() : null
+    )
+    if (matchesETag(ifNoneMatch, filtered.etag)) {
+      return notModified(filtered.etag)
+    }
+    return ResponseEntity.ok()
+      .cacheControl(CACHE_CONTROL)
+      .eTag(filtered.etag)
+      .body(filtered.applications)
+  }
+
+  /**
+   * The application service replaces (rather than modifies) its list on every refresh, whether or
+   * not any application changed; a replacement with the same content keeps the encoded snapshot.
+   */
+  private ApplicationListSnapshot getApplicationListSnapshot(List<Map> applications) {
+    ApplicationListSnapshot current = applicationListSnapshot.get()
+    if (current != null && current.source.is(applications)) {
+      return current
+    }
+
+    synchronized (applicationListSnapshot) {
+      current = applicationListSnapshot.get()
+      if (current != null && current.source.is(applications)) {
+        return current
+      }
+
+      ApplicationListSnapshot snapshot
+      if (current != null && current.applications == (applications ?: [])) {
+        snapshot = current.withSource(applications)
+      } else {
+        snapshot = new ApplicationListSnapshot(applications, objectMapper ?: DEFAULT_OBJECT_MAPPER)
+      }
+      applicationListSnapshot.set(snapshot)
+      return snapshot
+    }
+  }
+
+  private static ResponseEntity<?> notModified(String etag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).eTag(etag).build()
+  }
+
+  private static boolean matchesETag(String ifNoneMatch, String etag) {
+    if (!ifNoneMatch) {
+      return false
+    }
+    return ifNoneMatch.split(",").any {
+      String candidate = it.trim()
+      candidate = candidate.startsWith("W/") ? candidate.substring(2) : candidate
+      candidate == "*" || candidate == etag || candidate == "\"${etag}\""
+    }
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (!acceptEncoding) {
+      return false
+    }
+    return acceptEncoding.split(",").any {
+      String[] parts = it.split(";")
+      parts[0].trim().equalsIgnoreCase("gzip") && !parts.drop(1).any { isZeroQuality(it) }
+    }
+  }
+
+  private static boolean isZeroQuality(String parameter) {
+    String[] nameAndValue = parameter.split("=", 2)
+    if (nameAndValue.length != 2 || !nameAndValue[0].trim().equalsIgnoreCase("q")) {
+      return false
+    }
+    try {
+      return Double.parseDouble(nameAndValue[1].trim()) == 0d
+    } catch (NumberFormatException ignored) {
+      return false
+    }
+  }
+
+  /**
+   * Only used to derive ETags when no ObjectMapper is available to pre-encode the list with.
+   */
+  private static final ObjectMapper DEFAULT_OBJECT_MAPPER = new ObjectMapper()
+
+  private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate()
+
+  static class ApplicationListSnapshot {
+    /**
+     * The list handed out by the application service, which may be a later (but equal) list than
+     * the one the snapshot was encoded from.
+     */
+    final List<Map> source
+    final List<Map> applications
+    final byte[] json
+    final String etag
+    final String gzipEtag
+    private final List<Set<String>> accounts
+    private final List<String> owners
+    private final Compressed compressed
+
+    ApplicationListSnapshot(List<Map> source, ObjectMapper objectMapper) {
+      this.source = source
+      this.applications = source ?: []
+      this.json = objectMapper.writeValueAsBytes(applications)
+      this.etag = DigestUtils.md5DigestAsHex(json)
+      this.gzipEtag = "${etag}-gzip"
+      this.accounts = new ArrayList<>(applications.size())
+      this.owners = new ArrayList<>(applications.size())
+      this.compressed = new Compressed()
+
+      // the lower-cased fields used for filtering are derived once per snapshot
+      for (Map application : applications) {
+        accounts.add(((String) application.accounts ?: "").toLowerCase().split(",") as Set<String>)
+        owners.add(((String) application.email ?: "").toLowerCase())
+      }
+    }
+
+    private ApplicationListSnapshot(List<Map> source, ApplicationListSnapshot snapshot) {
+      this.source = source
+      this.applications = snapshot.applications
+      this.json = snapshot.json
+      this.etag = snapshot.etag
+      this.gzipEtag = snapshot.gzipEtag
+      this.accounts = snapshot.accounts
+      this.owners = snapshot.owners
+      this.compressed = snapshot.compressed
+    }
+
+    ApplicationListSnapshot withSource(List<Map> source) {
+      return new ApplicationListSnapshot(source, this)
+    }
+
+    byte[] getCompressedJson() {
+      synchronized (compressed) {
+        if (compressed.bytes == null) {
+          ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+          new GZIPOutputStream(bytes).withCloseable { it.write(json) }
+          compressed.bytes = bytes.toByteArray()
         }
-        ((String) it.accounts ?: "").toLowerCase().split(",").contains(account.toLowerCase())
+        return compressed.bytes
       }
-      .findAll {
-        if (!owner) {
-          return true
+    }
+
+    Filtered filter(ApplicationReadPermissions.ReadableApplications readable,
+                    String lowerCaseAccount,
+                    String lowerCaseOwner) {
+      List<Map> filtered = new ArrayList<>()
+      // the filtered response is determined by which of the snapshot's applications it includes
+      BitSet included = new BitSet(applications.size())
+      int i = 0
+      for (Map application : applications) {
+        if ((lowerCaseAccount == null || accounts.get(i).contains(lowerCaseAccount)) &&
+          (lowerCaseOwner == null || owners.get(i) == lowerCaseOwner) &&
+          readable.canRead((String) application.name)) {
+          filtered.add(application)
+          included.set(i)
         }
-        ((String) it.email ?: "").toLowerCase() == owner.toLowerCase()
+        i++
+      }
+      return new Filtered(filtered, "${etag}-${DigestUtils.md5DigestAsHex(included.toByteArray())}")
+    }
+
+    static class Filtered {
+      final List<Map> applications
+      final String etag
+
+      Filtered(List<Map> applications, String etag) {
+        this.applications = applications
+        this.etag = etag
       }
+    }
+
+    /**
+     * Shared by the snapshots of equal lists, so that the list is compressed at most once.
+     */
+    private static class Compressed {
+      byte[] bytes
+    }
   }
 
   @Operation(summary = "Retrieve an application's details")
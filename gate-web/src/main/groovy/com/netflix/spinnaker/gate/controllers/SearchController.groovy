@@ -20,9 +20,13 @@ package com.netflix.spinnaker.gate.controllers
 import com.netflix.spinnaker.gate.services.SearchService
 import io.swagger.v3.oas.annotations.Operation
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.http.MediaType
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.util.ContentCachingResponseWrapper
+import org.springframework.web.util.WebUtils
 
 import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
 
 @RestController
 class SearchController {
@@ -44,11 +48,45 @@ class SearchController {
       return []
     }
 
-    def filters = httpServletRequest.getParameterNames().findAll { String parameterName ->
-      !["q", "type", "platform", "pageSize", "page", "allowShortQuery"].contains(parameterName)
+    searchService.search(query, type, platform, sourceApp, pageSize, page, getFilters(httpServletRequest))
+  }
+
+  /**
+   * Relays clouddriver's search response as it is read, rather than materializing it in gate (or
+   * buffering it in any {@link ContentCachingResponseWrapper} the response is wrapped in).
+   */
+  @Operation(summary = "Search infrastructure, streaming the results")
+  @RequestMapping(value = "/search", method = RequestMethod.GET, params = "stream=true")
+  void streamSearch(@RequestParam(value = "q", defaultValue = "", required = false) String query,
+                    @RequestParam(value = "type") String type,
+                    @RequestParam(value = "platform", required = false) String platform,
+                    @RequestParam(value = "pageSize", defaultValue = "10000", required = false) int pageSize,
+                    @RequestParam(value = "page", defaultValue = "1", required = false) int page,
+                    @RequestParam(value = "allowShortQuery", defaultValue = "false", required = false) boolean allowShortQuery,
+                    @RequestHeader(value = "X-RateLimit-App", required = false) String sourceApp,
+                    HttpServletRequest httpServletRequest,
+                    HttpServletResponse httpServletResponse) {
+    HttpServletResponse response = WebUtils.getNativeResponse(
+      httpServletResponse, ContentCachingResponseWrapper
+    )?.response as HttpServletResponse ?: httpServletResponse
+
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE)
+    if (!allowShortQuery && query?.size() < 3) {
+      // keyword searches must have a minimum of 3 characters
+      response.getOutputStream() << "[]"
+      return
+    }
+
+    searchService.search(
+      query, type, platform, sourceApp, pageSize, page, getFilters(httpServletRequest), response.getOutputStream()
+    )
+  }
+
+  private static Map<String, String> getFilters(HttpServletRequest httpServletRequest) {
+    return httpServletRequest.getParameterNames().findAll { String parameterName ->
+      !["q", "type", "platform", "pageSize", "page", "allowShortQuery", "stream"].contains(parameterName)
     }.collectEntries { String parameterName ->
       [parameterName, httpServletRequest.getParameter(parameterName)]
-    }
-    searchService.search(query, type, platform, sourceApp, pageSize, page, filters)
+    } as Map<String, String>
   }
 }
@@ -16,12 +16,16 @@
 package com.netflix.spinnaker.gate.ratelimit;
 
 import com.netflix.spinnaker.gate.config.RateLimiterConfiguration.PrincipalOverride;
+import java.util.Collection;
 import java.util.List;
 
 public abstract class AbstractRateLimitPrincipalProvider implements RateLimitPrincipalProvider {
 
   boolean isLearning(
-      String name, List<String> enforcing, List<String> ignoring, boolean globalLearningFlag) {
+      String name,
+      Collection<String> enforcing,
+      Collection<String> ignoring,
+      boolean globalLearningFlag) {
     return !enforcing.contains(name) && (ignoring.contains(name) || globalLearningFlag);
   }
 
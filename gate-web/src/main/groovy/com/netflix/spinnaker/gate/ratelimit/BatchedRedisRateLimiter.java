@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.gate.ratelimit;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.SetParams;
+
+/**
+ * A {@link RateLimiter} that counts requests against in-memory, per-principal buckets and
+ * periodically reconciles those counts with Redis.
+ *
+ * <p>No Redis round trip happens on the request path. Every {@code
+ * rate-limit.redis.sync-interval-ms} (default 1000ms) the locally accumulated counts are flushed to
+ * Redis in a single pipeline, and each bucket picks up the count (and remaining window) observed
+ * across all gate instances. Limits are therefore only approximately global: between two syncs an
+ * instance can admit up to {@code capacity} requests for a principal on its own.
+ *
+ * <p>Buckets share their Redis keys with {@link RedisRateLimiter}, so instances running either
+ * implementation can coexist during a rollout.
+ */
+public class BatchedRedisRateLimiter implements RateLimiter {
+
+  private static final Logger log = LoggerFactory.getLogger(BatchedRedisRateLimiter.class);
+
+  private final JedisPool jedisPool;
+  private final Clock clock;
+
+  private final ConcurrentMap<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+
+  private final Timer syncTimer;
+  private final Counter syncFailures;
+
+  public BatchedRedisRateLimiter(JedisPool jedisPool, Registry registry) {
+    this(jedisPool, registry, Clock.systemUTC());
+  }
+
+  BatchedRedisRateLimiter(JedisPool jedisPool, Registry registry, Clock clock) {
+    this.jedisPool = jedisPool;
+    this.clock = clock;
+
+    this.syncTimer = registry.timer("rateLimit.batched.sync");
+    this.syncFailures = registry.counter("rateLimit.batched.syncFailures");
+    registry.gauge("rateLimit.batched.buckets", buckets, ConcurrentMap::size);
+  }
+
+  @Override
+  public Rate incrementAndGetRate(RateLimitPrincipal principal) {
+    long now = clock.millis();
+
+    LocalBucket bucket = buckets.get(principal.getName());
+    if (bucket == null || !bucket.isCurrent(principal, now)) {
+      bucket =
+          buckets.compute(
+              principal.getName(),
+              (name, existing) ->
+                  (existing != null && existing.isCurrent(principal, now))
+                      ? existing
+                      : new LocalBucket(getRedisKey(name), principal.getRateSeconds(), now));
+    }
+
+    return bucket.increment(principal.getCapacity());
+  }
+
+  /** Flush local counts to Redis and refresh every bucket with the globally observed count. */
+  @Scheduled(fixedDelayString = "${rate-limit.redis.sync-interval-ms:1000}")
+  void sync() {
+    long now = clock.millis();
+    buckets.values().removeIf(bucket -> bucket.isExpired(now));
+
+    List<LocalBucket> toSync = new ArrayList<>(buckets.values());
+    if (toSync.isEmpty()) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    try (Jedis jedis = jedisPool.getResource()) {
+      long[] flushed = new long[toSync.size()];
+      List<Response<Long>> counts = new ArrayList<>(toSync.size());
+      List<Response<Long>> ttls = new ArrayList<>(toSync.size());
+
+      Pipeline pipeline = jedis.pipelined();
+      for (int i = 0; i < toSync.size(); i++) {
+        LocalBucket bucket = toSync.get(i);
+        flushed[i] = bucket.counts.get().pending;
+
+        // creating the key and its expiry in one command avoids keys that never expire
+        pipeline.set(bucket.key, "0", SetParams.setParams().nx().px(bucket.rateSeconds * 1000L));
+        counts.add(pipeline.incrBy(bucket.key, flushed[i]));
+        ttls.add(pipeline.pttl(bucket.key));
+      }
+      pipeline.sync();
+
+      List<LocalBucket> withoutExpiry = new ArrayList<>();
+      for (int i = 0; i < toSync.size(); i++) {
+        LocalBucket bucket = toSync.get(i);
+        long ttl = ttls.get(i).get();
+        bucket.reconcile(flushed[i], counts.get(i).get(), ttl, now);
+        if (ttl < 0) {
+          withoutExpiry.add(bucket);
+        }
+      }
+
+      if (!withoutExpiry.isEmpty()) {
+        // keys left behind without an expiry (ie. by a lost PEXPIRE) would otherwise never reset
+        Pipeline expirePipeline = jedis.pipelined();
+        for (LocalBucket bucket : withoutExpiry) {
+          expirePipeline.pexpire(bucket.key, bucket.rateSeconds * 1000L);
+        }
+        expirePipeline.sync();
+      }
+    } catch (JedisException e) {
+      syncFailures.increment();
+      log.error("failed synchronizing rate limits with redis, will retry", e);
+    } finally {
+      syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static String getRedisKey(String name) {
+    return "rateLimit:" + name;
+  }
+
+  static class LocalBucket {
+    final String key;
+    final int rateSeconds;
+
+    /**
+     * Updated as a whole, so that a request never sees a global count that already includes
+     * requests still counted as pending (or vice versa).
+     */
+    final AtomicReference<Counts> counts = new AtomicReference<>(new Counts(0, 0));
+
+    /** Epoch millis at which this bucket's window ends. */
+    volatile long reset;
+
+    LocalBucket(String key, int rateSeconds, long now) {
+      this.key = key;
+      this.rateSeconds = rateSeconds;
+      this.reset = now + rateSeconds * 1000L;
+    }
+
+    boolean isExpired(long now) {
+      return now >= reset;
+    }
+
+    boolean isCurrent(RateLimitPrincipal principal, long now) {
+      return !isExpired(now) && rateSeconds == principal.getRateSeconds();
+    }
+
+    Rate increment(int capacity) {
+      Counts current = counts.updateAndGet(c -> new Counts(c.global, c.pending + 1));
+      long count = current.global + current.pending;
+
+      Rate rate = new Rate();
+      rate.capacity = capacity;
+      rate.rateSeconds = rateSeconds;
+      rate.remaining = (int) Math.max(capacity - count, 0);
+
+      // 5 seconds are added here to allow for a degree of time drift between server and client.
+      rate.reset = reset + 5;
+      rate.throttled = count > capacity;
+      return rate;
+    }
+
+    void reconcile(long flushed, long count, long ttl, long now) {
+      counts.updateAndGet(c -> new Counts(count, c.pending - flushed));
+      if (ttl > 0) {
+        // align with the window shared by all gate instances
+        reset = now + ttl;
+      }
+    }
+  }
+
+  static class Counts {
+    /** The count observed in Redis during the last sync, including everything flushed so far. */
+    final long global;
+
+    /** Requests counted locally that have not (yet) been flushed to Redis. */
+    final long pending;
+
+    Counts(long global, long pending) {
+      this.global = global;
+      this.pending = pending;
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.gate.ratelimit;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+/**
+ * A {@link RateLimiter} implementing the generic cell rate algorithm (GCRA) in a single Redis
+ * script invocation.
+ *
+ * <p>Each principal may burst up to {@code capacity} requests, after which capacity is replenished
+ * at a rate of {@code capacity} requests per {@code rateSeconds}. The read-modify-write of the
+ * bucket and its expiry happen atomically on the Redis side, and the script returns everything
+ * needed to build a {@link Rate} in one round trip.
+ */
+public class GcraRedisRateLimiter implements RateLimiter {
+
+  private static final Logger log = LoggerFactory.getLogger(GcraRedisRateLimiter.class);
+
+  /**
+   * KEYS[1] - the bucket key, holding the theoretical arrival time (TAT) of the next request
+   *
+   * <p>ARGV[1] - now (epoch millis), ARGV[2] - capacity, ARGV[3] - period (rateSeconds in millis)
+   *
+   * <p>The emission interval ({@code period / capacity}) is rarely a whole number of millis, so
+   * the TAT is kept as whole millis plus a remainder in units of {@code 1 / capacity} millis (and
+   * stored as {@code "<millis>:<remainder>"}); all arithmetic is on integers, which Lua's doubles
+   * represent exactly at these magnitudes.
+   *
+   * <p>Returns {throttled (0/1), remaining, reset (epoch millis)}
+   */
+  static final String SCRIPT =
+      "local now = tonumber(ARGV[1])\n"
+          + "local capacity = tonumber(ARGV[2])\n"
+          + "local period = tonumber(ARGV[3])\n"
+          + "local intervalMs = math.floor(period / capacity)\n"
+          + "local intervalRem = period % capacity\n"
+          + "local tatMs, tatRem = now, 0\n"
+          + "local stored = redis.call('GET', KEYS[1])\n"
+          + "if stored then\n"
+          + "  local storedMs, storedRem = string.match(stored, '^(%d+):(%d+)$')\n"
+          + "  if storedMs and tonumber(storedMs) >= now then\n"
+          + "    tatMs, tatRem = tonumber(storedMs), tonumber(storedRem)\n"
+          + "  end\n"
+          + "end\n"
+          + "local newTatRem = tatRem + intervalRem\n"
+          + "local newTatMs = tatMs + intervalMs + math.floor(newTatRem / capacity)\n"
+          + "newTatRem = newTatRem % capacity\n"
+          // (now - allowAt) * capacity, where allowAt = newTat - period
+          + "local elapsed = (now - newTatMs + period) * capacity - newTatRem\n"
+          + "if elapsed < 0 then\n"
+          + "  return {1, 0, tatMs + (tatRem > 0 and 1 or 0)}\n"
+          + "end\n"
+          + "local newTatCeil = newTatMs + (newTatRem > 0 and 1 or 0)\n"
+          + "redis.call('SET', KEYS[1], string.format('%d:%d', newTatMs, newTatRem),"
+          + " 'PX', newTatCeil - now)\n"
+          + "return {0, math.floor(elapsed / period), newTatCeil}\n";
+
+  private final JedisPool jedisPool;
+  private final Clock clock;
+
+  private volatile String scriptSha;
+
+  public GcraRedisRateLimiter(JedisPool jedisPool) {
+    this(jedisPool, Clock.systemUTC());
+  }
+
+  GcraRedisRateLimiter(JedisPool jedisPool, Clock clock) {
+    this.jedisPool = jedisPool;
+    this.clock = clock;
+  }
+
+  @Override
+  public Rate incrementAndGetRate(RateLimitPrincipal principal) {
+    long period = principal.getRateSeconds() * 1000L;
+    int capacity = Math.max(principal.getCapacity(), 1);
+
+    List<String> keys = Collections.singletonList(getRedisKey(principal.getName()));
+    List<String> args =
+        List.of(
+            String.valueOf(clock.millis()), String.valueOf(capacity), String.valueOf(period));
+
+    try (Jedis jedis = jedisPool.getResource()) {
+      List<?> result;
+      try {
+        result = (List<?>) jedis.evalsha(getScriptSha(jedis), keys, args);
+      } catch (JedisNoScriptException e) {
+        // script cache was flushed (or redis restarted)
+        scriptSha = null;
+        result = (List<?>) jedis.evalsha(getScriptSha(jedis), keys, args);
+      }
+
+      Rate rate = new Rate();
+      rate.capacity = principal.getCapacity();
+      rate.rateSeconds = principal.getRateSeconds();
+      rate.throttled = ((Long) result.get(0)) == 1L;
+      rate.remaining = ((Long) result.get(1)).intValue();
+
+      // 5 seconds are added here to allow for a degree of time drift between server and client.
+      rate.reset = (Long) result.get(2) + 5;
+      return rate;
+    } catch (JedisException e) {
+      log.error("failed getting rate limit, disabling for request", e);
+      Rate rate = new Rate();
+      rate.throttled = false;
+      rate.rateSeconds = principal.getRateSeconds();
+      rate.capacity = 0;
+      rate.remaining = 0;
+      rate.reset = clock.millis();
+      return rate;
+    }
+  }
+
+  private String getScriptSha(Jedis jedis) {
+    String sha = scriptSha;
+    if (sha == null) {
+      sha = jedis.scriptLoad(SCRIPT);
+      scriptSha = sha;
+    }
+    return sha;
+  }
+
+  private static String getRedisKey(String name) {
+    return "rateLimit:gcra:" + name;
+  }
+}
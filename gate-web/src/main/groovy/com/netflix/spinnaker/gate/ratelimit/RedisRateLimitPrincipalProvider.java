@@ -17,44 +17,96 @@ package com.netflix.spinnaker.gate.ratelimit;
 
 import static net.logstash.logback.argument.StructuredArguments.value;
 
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
 import com.netflix.spinnaker.gate.config.RateLimiterConfiguration;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
 import redis.clients.jedis.exceptions.JedisException;
 
 public class RedisRateLimitPrincipalProvider extends AbstractRateLimitPrincipalProvider {
 
   private static final Logger log = LoggerFactory.getLogger(RedisRateLimitPrincipalProvider.class);
 
+  private static final String CAPACITY_KEY_PREFIX = "rateLimit:capacity:";
+  private static final String RATE_SECONDS_KEY_PREFIX = "rateLimit:rateSeconds:";
+
   private JedisPool jedisPool;
   private RateLimiterConfiguration rateLimiterConfiguration;
 
   private boolean supportsDeckSourceApp;
 
+  /** Only populated when {@code rate-limit.redis.principal-config.cached} is enabled. */
+  private final AtomicReference<PrincipalConfigSnapshot> snapshot = new AtomicReference<>();
+
+  private final Timer reloadTimer;
+  private final Counter reloadFailures;
+
+  private ExecutorService keyspaceNotificationExecutor;
+  private volatile JedisPubSub keyspaceNotificationSubscriber;
+
   public RedisRateLimitPrincipalProvider(
       JedisPool jedisPool, RateLimiterConfiguration rateLimiterConfiguration) {
+    this(jedisPool, rateLimiterConfiguration, new NoopRegistry());
+  }
+
+  public RedisRateLimitPrincipalProvider(
+      JedisPool jedisPool, RateLimiterConfiguration rateLimiterConfiguration, Registry registry) {
     this.jedisPool = jedisPool;
     this.rateLimiterConfiguration = rateLimiterConfiguration;
 
+    this.reloadTimer = registry.timer("rateLimit.principalConfig.reload");
+    this.reloadFailures = registry.counter("rateLimit.principalConfig.reloadFailures");
+    registry.gauge(
+        "rateLimit.principalConfig.staleness",
+        snapshot,
+        ref -> {
+          PrincipalConfigSnapshot current = ref.get();
+          return current == null ? 0 : System.currentTimeMillis() - current.loadedAt;
+        });
+
     refreshSupportsDeckSourceApp();
+
+    RateLimiterConfiguration.Redis.PrincipalConfig principalConfig =
+        rateLimiterConfiguration.getRedis().getPrincipalConfig();
+    if (principalConfig.isCached()) {
+      refreshPrincipalConfig();
+      if (principalConfig.isKeyspaceNotifications()) {
+        subscribeToKeyspaceNotifications();
+      }
+    }
   }
 
   @Override
   public RateLimitPrincipal getPrincipal(String name, @Nullable String sourceApp) {
     String configName = normalizeAnonymousNameForConfig(name);
-    try (Jedis jedis = jedisPool.getResource()) {
-      int capacity = getCapacity(jedis, configName, sourceApp);
-      int rateSeconds = getRateSeconds(jedis, configName);
-      boolean learning = getLearningFlag(jedis, configName, sourceApp);
 
-      return new RateLimitPrincipal(name, rateSeconds, capacity, learning);
+    PrincipalConfigSnapshot cached = snapshot.get();
+    if (cached != null) {
+      return getPrincipal(name, configName, sourceApp, cached);
+    }
+
+    try (Jedis jedis = jedisPool.getResource()) {
+      return getPrincipal(name, configName, sourceApp, new JedisPrincipalConfig(jedis));
     } catch (JedisException e) {
       log.error("failed getting rate limit principal, disabling for request", e);
       return new RateLimitPrincipal(
@@ -76,8 +128,17 @@ public class RedisRateLimitPrincipalProvider extends AbstractRateLimitPrincipalP
     return true;
   }
 
-  private int getCapacity(Jedis jedis, String name, @Nullable String sourceApp) {
-    String capacity = jedis.get(getCapacityKey(name));
+  private RateLimitPrincipal getPrincipal(
+      String name, String configName, @Nullable String sourceApp, PrincipalConfigSource config) {
+    int capacity = getCapacity(config, configName, sourceApp);
+    int rateSeconds = getRateSeconds(config, configName);
+    boolean learning = getLearningFlag(config, configName, sourceApp);
+
+    return new RateLimitPrincipal(name, rateSeconds, capacity, learning);
+  }
+
+  private int getCapacity(PrincipalConfigSource config, String name, @Nullable String sourceApp) {
+    String capacity = config.getCapacity(name);
     if (capacity != null) {
       try {
         return Integer.parseInt(capacity);
@@ -92,11 +153,11 @@ public class RedisRateLimitPrincipalProvider extends AbstractRateLimitPrincipalP
     return overrideOrDefault(
         name,
         rateLimiterConfiguration.getCapacityByPrincipal(),
-        getCapacityForSourceApp(jedis, sourceApp).orElse(rateLimiterConfiguration.getCapacity()));
+        getCapacityForSourceApp(config, sourceApp).orElse(rateLimiterConfiguration.getCapacity()));
   }
 
-  private int getRateSeconds(Jedis jedis, String name) {
-    String rateSeconds = jedis.get(getRateSecondsKey(name));
+  private int getRateSeconds(PrincipalConfigSource config, String name) {
+    String rateSeconds = config.getRateSeconds(name);
     if (rateSeconds != null) {
       try {
         return Integer.parseInt(rateSeconds);
@@ -113,11 +174,12 @@ public class RedisRateLimitPrincipalProvider extends AbstractRateLimitPrincipalP
         rateLimiterConfiguration.getRateSeconds());
   }
 
-  private boolean getLearningFlag(Jedis jedis, String name, @Nullable String sourceApp) {
-    List<String> enforcing = new ArrayList<>(jedis.smembers(getEnforcingKey()));
-    List<String> ignoring = new ArrayList<>(jedis.smembers(getIgnoringKey()));
+  private boolean getLearningFlag(
+      PrincipalConfigSource config, String name, @Nullable String sourceApp) {
+    Collection<String> enforcing = config.getEnforcing();
+    Collection<String> ignoring = config.getIgnoring();
 
-    if (sourceApp != null && getCapacityForSourceApp(jedis, sourceApp).isPresent()) {
+    if (sourceApp != null && getCapacityForSourceApp(config, sourceApp).isPresent()) {
       // enforcing source app limits _must_ be explicitly enabled (for now!)
       return !enforcing.contains("app:" + sourceApp.toLowerCase());
     }
@@ -141,7 +203,7 @@ public class RedisRateLimitPrincipalProvider extends AbstractRateLimitPrincipalP
       }
     }
 
-    String redisLearning = jedis.get(getLearningKey());
+    String redisLearning = config.getLearning();
     boolean learning =
         redisLearning == null
             ? rateLimiterConfiguration.isLearning()
@@ -151,11 +213,11 @@ public class RedisRateLimitPrincipalProvider extends AbstractRateLimitPrincipalP
   }
 
   private static String getCapacityKey(String name) {
-    return "rateLimit:capacity:" + name;
+    return CAPACITY_KEY_PREFIX + name;
   }
 
   private static String getRateSecondsKey(String name) {
-    return "rateLimit:rateSeconds:" + name;
+    return RATE_SECONDS_KEY_PREFIX + name;
   }
 
   private static String getEnforcingKey() {
@@ -177,12 +239,13 @@ public class RedisRateLimitPrincipalProvider extends AbstractRateLimitPrincipalP
     return name;
   }
 
-  private Optional<Integer> getCapacityForSourceApp(Jedis jedis, @Nullable String sourceApp) {
+  private Optional<Integer> getCapacityForSourceApp(
+      PrincipalConfigSource config, @Nullable String sourceApp) {
     if (sourceApp == null) {
       return Optional.empty();
     }
 
-    String capacity = jedis.get(getCapacityKey("app:" + sourceApp));
+    String capacity = config.getCapacity("app:" + sourceApp);
     if (capacity != null) {
       try {
         return Optional.of(Integer.parseInt(capacity));
@@ -212,4 +275,215 @@ public class RedisRateLimitPrincipalProvider extends AbstractRateLimitPrincipalP
     log.debug(
         "Refreshed 'supportsDeckSourceApp' (supportsDeckSourceApp: {})", supportsDeckSourceApp);
   }
+
+  /**
+   * Reload the in-memory snapshot of principal configuration.
+   *
+   * <p>A failed reload keeps serving the previous snapshot rather than falling back to defaults.
+   */
+  @Scheduled(fixedDelayString = "${rate-limit.redis.principal-config.refresh-interval-ms:30000}")
+  synchronized void refreshPrincipalConfig() {
+    if (!rateLimiterConfiguration.getRedis().getPrincipalConfig().isCached()) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    try (Jedis jedis = jedisPool.getResource()) {
+      PrincipalConfigSnapshot reloaded =
+          new PrincipalConfigSnapshot(
+              scanValues(jedis, CAPACITY_KEY_PREFIX),
+              scanValues(jedis, RATE_SECONDS_KEY_PREFIX),
+              jedis.smembers(getEnforcingKey()),
+              jedis.smembers(getIgnoringKey()),
+              jedis.get(getLearningKey()),
+              System.currentTimeMillis());
+      snapshot.set(reloaded);
+
+      log.debug(
+          "Refreshed rate limit principal config (capacities: {}, rateSeconds: {})",
+          reloaded.capacities.size(),
+          reloaded.rateSeconds.size());
+    } catch (JedisException e) {
+      reloadFailures.increment();
+      log.error("failed refreshing rate limit principal config, using previous config", e);
+    } finally {
+      reloadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Reload whenever a principal configuration key changes.
+   *
+   * <p>Requires keyspace notifications for string and set commands to be enabled in Redis (ie.
+   * {@code notify-keyspace-events} including {@code K$s}), the scheduled reload remains in place
+   * regardless.
+   */
+  private void subscribeToKeyspaceNotifications() {
+    keyspaceNotificationExecutor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "rateLimitPrincipalConfigSubscriber");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    keyspaceNotificationExecutor.submit(
+        () -> {
+          while (!Thread.currentThread().isInterrupted()) {
+            try (Jedis jedis = jedisPool.getResource()) {
+              keyspaceNotificationSubscriber =
+                  new JedisPubSub() {
+                    @Override
+                    public void onPMessage(String pattern, String channel, String message) {
+                      refreshPrincipalConfig();
+                    }
+                  };
+              jedis.psubscribe(
+                  keyspaceNotificationSubscriber,
+                  "__keyspace@*__:" + CAPACITY_KEY_PREFIX + "*",
+                  "__keyspace@*__:" + RATE_SECONDS_KEY_PREFIX + "*",
+                  "__keyspace@*__:" + getEnforcingKey(),
+                  "__keyspace@*__:" + getIgnoringKey(),
+                  "__keyspace@*__:" + getLearningKey());
+            } catch (JedisException e) {
+              log.warn("Lost keyspace notification subscription, resubscribing", e);
+              try {
+                Thread.sleep(5000);
+              } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+              }
+            }
+          }
+        });
+  }
+
+  public void shutdown() {
+    if (keyspaceNotificationExecutor != null) {
+      keyspaceNotificationExecutor.shutdownNow();
+      JedisPubSub subscriber = keyspaceNotificationSubscriber;
+      if (subscriber != null && subscriber.isSubscribed()) {
+        subscriber.punsubscribe();
+      }
+    }
+  }
+
+  private static Map<String, String> scanValues(Jedis jedis, String prefix) {
+    Map<String, String> values = new HashMap<>();
+
+    ScanParams scanParams = new ScanParams().match(prefix + "*").count(1000);
+    String cursor = ScanParams.SCAN_POINTER_START;
+    do {
+      ScanResult<String> result = jedis.scan(cursor, scanParams);
+      List<String> keys = result.getResult();
+      if (!keys.isEmpty()) {
+        List<String> keyValues = jedis.mget(keys.toArray(new String[0]));
+        for (int i = 0; i < keys.size(); i++) {
+          if (keyValues.get(i) != null) {
+            values.put(keys.get(i).substring(prefix.length()), keyValues.get(i));
+          }
+        }
+      }
+      cursor = result.getCursor();
+    } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+
+    return values;
+  }
+
+  /** The Redis-managed portion of a principal's rate limit configuration. */
+  private interface PrincipalConfigSource {
+    @Nullable
+    String getCapacity(String name);
+
+    @Nullable
+    String getRateSeconds(String name);
+
+    Set<String> getEnforcing();
+
+    Set<String> getIgnoring();
+
+    @Nullable
+    String getLearning();
+  }
+
+  private static class JedisPrincipalConfig implements PrincipalConfigSource {
+    private final Jedis jedis;
+
+    JedisPrincipalConfig(Jedis jedis) {
+      this.jedis = jedis;
+    }
+
+    @Override
+    public String getCapacity(String name) {
+      return jedis.get(getCapacityKey(name));
+    }
+
+    @Override
+    public String getRateSeconds(String name) {
+      return jedis.get(getRateSecondsKey(name));
+    }
+
+    @Override
+    public Set<String> getEnforcing() {
+      return jedis.smembers(getEnforcingKey());
+    }
+
+    @Override
+    public Set<String> getIgnoring() {
+      return jedis.smembers(getIgnoringKey());
+    }
+
+    @Override
+    public String getLearning() {
+      return jedis.get(getLearningKey());
+    }
+  }
+
+  private static class PrincipalConfigSnapshot implements PrincipalConfigSource {
+    private final Map<String, String> capacities;
+    private final Map<String, String> rateSeconds;
+    private final Set<String> enforcing;
+    private final Set<String> ignoring;
+    private final String learning;
+    private final long loadedAt;
+
+    PrincipalConfigSnapshot(
+        Map<String, String> capacities,
+        Map<String, String> rateSeconds,
+        Set<String> enforcing,
+        Set<String> ignoring,
+        @Nullable String learning,
+        long loadedAt) {
+      this.capacities = capacities;
+      this.rateSeconds = rateSeconds;
+      this.enforcing = enforcing;
+      this.ignoring = ignoring;
+      this.learning = learning;
+      this.loadedAt = loadedAt;
+    }
+
+    @Override
+    public String getCapacity(String name) {
+      return capacities.get(name);
+    }
+
+    @Override
+    public String getRateSeconds(String name) {
+      return rateSeconds.get(name);
+    }
+
+    @Override
+    public Set<String> getEnforcing() {
+      return enforcing;
+    }
+
+    @Override
+    public Set<String> getIgnoring() {
+      return ignoring;
+    }
+
+    @Override
+    public String getLearning() {
+      return learning;
+    }
+  }
 }
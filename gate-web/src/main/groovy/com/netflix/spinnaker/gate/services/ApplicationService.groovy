@@ -54,6 +54,7 @@ class ApplicationService {
   private ExecutorService executorService
 
   private AtomicReference<List<Map>> allApplicationsCache
+  private AtomicReference<ApplicationIndex> applicationIndex
   private ApplicationConfigurationProperties applicationConfigurationProperties
 
   @Autowired
@@ -69,6 +70,7 @@ class ApplicationService {
     this.applicationConfigurationProperties = applicationConfigurationProperties
     this.executorService = Executors.newCachedThreadPool()
     this.allApplicationsCache = new AtomicReference<>([])
+    this.applicationIndex = new AtomicReference<>(new ApplicationIndex([], [:], [:], null))
   }
 
   // used in tests
@@ -80,7 +82,13 @@ class ApplicationService {
              initialDelayString = '${services.front50.applicationRefreshInitialDelayMs:}')
   void refreshApplicationsCache() {
     try {
-      allApplicationsCache.set(tick(true))
+      if (applicationConfigurationProperties.incrementalRefresh) {
+        ApplicationIndex index = incrementalTick(true)
+        allApplicationsCache.set(index.applications)
+        applicationIndex.set(index)
+      } else {
+        allApplicationsCache.set(tick(true))
+      }
       log.debug("Refreshed Application List (applications: {})", allApplicationsCache.get().size())
     } catch (e) {
       log.error("Unable to refresh application list", e)
@@ -98,18 +106,7 @@ class ApplicationService {
    * @return Applications
    */
   List<Map<String, Object>> tick(boolean expandClusterNames = true) {
-    List<List<Map>> all
-    if (applicationConfigurationProperties.useFront50AsSourceOfTruth) {
-      all = getApplicationsWithFront50AsSourceOfTruth(expandClusterNames)
-    } else {
-      def applicationListRetrievers = buildApplicationListRetrievers(expandClusterNames)
-      List<Future<List<Map>>> futures = executorService.invokeAll(applicationListRetrievers)
-      try {
-        all = futures.collect { it.get() }
-      } catch (ExecutionException ee) {
-        throw ee.cause
-      }
-    }
+    List<List<Map>> all = retrieveApplications(expandClusterNames)
 
     List<Map> flat = (List<Map>) all?.flatten()?.toList()
     return mergeApps(flat, serviceConfiguration.getService('front50')).collect {
@@ -117,10 +114,126 @@ class ApplicationService {
     } as List<Map>
   }
 
+  /**
+   * Neither front50 nor clouddriver expose a way to ask for only those applications that changed
+   * since a given point in time, so the full lists are still retrieved.
+   *
+   * What is avoided is re-merging every application on every refresh. The front50 and clouddriver
+   * entries for each application are kept in the index and only applications whose entries are not
+   * equal to those of the previous refresh are merged again, everything else is carried over from
+   * the previous index. Every application is merged again if the `includedAccounts` filter of
+   * front50 changed.
+   *
+   * @param expandClusterNames Should cluster details (for each application) be fetched from clouddriver
+   * @return Indexed applications
+   */
+  ApplicationIndex incrementalTick(boolean expandClusterNames = true) {
+    List<List<Map>> all = retrieveApplications(expandClusterNames)
+
+    Map<String, List<Map<String, Object>>> sourcesByName = new LinkedHashMap<>()
+    for (List<Map> source : all) {
+      if (source == null) {
+        continue
+      }
+      for (Map app : source) {
+        String name = app?.get("name") as String
+        if (!name) {
+          continue
+        }
+        String key = name.toLowerCase()
+        List<Map<String, Object>> sources = sourcesByName.get(key)
+        if (sources == null) {
+          sources = new ArrayList<>(2)
+          sourcesByName.put(key, sources)
+        }
+        sources.add(app as Map<String, Object>)
+      }
+    }
+
+    ApplicationIndex previous = getApplicationIndex()
+    Service front50Config = serviceConfiguration.getService('front50')
+    Object includedAccounts = front50Config?.config?.get('includedAccounts')
+    boolean filterChanged = !Objects.equals(includedAccounts, previous.includedAccounts)
+
+    List<Map> applications = new ArrayList<>(sourcesByName.size())
+    Map<String, Map> applicationsByName = new HashMap<>(sourcesByName.size() * 2)
+    int mergedCount = 0
+    for (Map.Entry<String, List<Map<String, Object>>> entry : sourcesByName.entrySet()) {
+      String key = entry.key
+
+      Map application
+      List<Map<String, Object>> previousSources = previous.sourcesByName.get(key)
+      if (!filterChanged && previousSources != null && previousSources.equals(entry.value)) {
+        // may be null if the application was excluded by `includedAccounts`
+        application = previous.applicationsByName.get(key)
+      } else {
+        List<Map> merged = mergeApps(entry.value, front50Config)
+        application = merged ? (Map) merged[0].attributes : null
+        mergedCount++
+      }
+
+      if (application != null) {
+        applications.add(application)
+        applicationsByName.put(key, application)
+      }
+    }
+
+    log.debug(
+      "Incrementally refreshed Application List (applications: {}, merged: {})",
+      applications.size(),
+      mergedCount
+    )
+    return new ApplicationIndex(applications, applicationsByName, sourcesByName, includedAccounts)
+  }
+
   List<Map> getAllApplications() {
     return allApplicationsCache.get()
   }
 
+  /**
+   * @return the cached application with the given name (case-insensitive), or null if not cached
+   */
+  Map getCachedApplication(String name) {
+    return name ? getApplicationIndex().applicationsByName.get(name.toLowerCase()) : null
+  }
+
+  /**
+   * The index is (re)built lazily whenever `allApplicationsCache` has been replaced by something
+   * other than an incremental refresh (full refresh, tests).
+   */
+  private ApplicationIndex getApplicationIndex() {
+    List<Map> applications = allApplicationsCache.get()
+    ApplicationIndex current = applicationIndex.get()
+    if (current.applications.is(applications)) {
+      return current
+    }
+
+    Map<String, Map> applicationsByName = new HashMap<>(applications.size() * 2)
+    for (Map application : applications) {
+      String name = application?.get("name") as String
+      if (name) {
+        applicationsByName.putIfAbsent(name.toLowerCase(), application)
+      }
+    }
+    ApplicationIndex index = new ApplicationIndex(applications, applicationsByName, [:], null)
+    applicationIndex.compareAndSet(current, index)
+    return index
+  }
+
+  private List<List<Map>> retrieveApplications(boolean expandClusterNames) {
+    if (applicationConfigurationProperties.useFront50AsSourceOfTruth) {
+      return getApplicationsWithFront50AsSourceOfTruth(expandClusterNames)
+    }
+
+    def applicationListRetrievers = buildApplicationListRetrievers(expandClusterNames)
+    List<Future<List<Map>>> futures = executorService.invokeAll(applicationListRetrievers)
+    try {
+      return futures.collect { it.get() }
+    } catch (ExecutionException ee) {
+      throw ee.cause
+    }
+  }
+
   Map getApplication(String name, boolean expand) {
     List<Map> applications
     if (applicationConfigurationProperties.useFront50AsSourceOfTruth) {
@@ -135,7 +248,7 @@ class ApplicationService {
       }
 
       if (!expand) {
-        def cachedApplication = allApplicationsCache.get().find { name.equalsIgnoreCase(it.name as String) }
+        def cachedApplication = getCachedApplication(name)
         if (cachedApplication) {
           // ensure that `cachedApplication` attributes are overridden by any previously fetched metadata from front50
           applications.add(0, cachedApplication)
@@ -402,6 +515,30 @@ class ApplicationService {
     return result
   }
 
+  static class ApplicationIndex {
+    final List<Map> applications
+    final Map<String, Map> applicationsByName
+
+    /**
+     * The front50 and clouddriver entries each application was merged from, by lower-cased name
+     * (empty unless built by an incremental refresh).
+     */
+    final Map<String, List<Map<String, Object>>> sourcesByName
+
+    /** The `includedAccounts` filter the applications were merged with. */
+    final Object includedAccounts
+
+    ApplicationIndex(List<Map> applications,
+                     Map<String, Map> applicationsByName,
+                     Map<String, List<Map<String, Object>>> sourcesByName,
+                     Object includedAccounts) {
+      this.applications = applications
+      this.applicationsByName = applicationsByName
+      this.sourcesByName = sourcesByName
+      this.includedAccounts = includedAccounts
+    }
+  }
+
   static class Front50ApplicationListRetriever extends MdcWrappedCallable<List<Map>> {
     private final Front50Service front50
     private final AtomicReference<List<Map>> allApplicationsCache
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService
+import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall
+import com.netflix.spinnaker.security.AuthenticatedRequest
+import groovy.transform.CompileStatic
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.security.core.context.SecurityContextHolder
+import org.springframework.stereotype.Component
+
+import javax.annotation.PreDestroy
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Issues the independent Clouddriver calls behind a detail lookup (ie. a server group or instance
+ * and the account it belongs to) concurrently, on threads that carry the caller's MDC and
+ * authenticated request context.
+ *
+ * Account details are served from the {@link AccountLookupService} snapshot when the account is
+ * known to it, and only fetched from Clouddriver otherwise.
+ *
+ * The calls of every detail lookup share a pool of {@code services.clouddriver.details-lookup.threads}
+ * threads, with up to {@code services.clouddriver.details-lookup.queue-capacity} calls waiting for
+ * one; beyond that, calls run on the caller's thread (ie. the lookup degrades to sequential calls)
+ * rather than growing the pool when Clouddriver is slow.
+ */
+@CompileStatic
+@Component
+class ClouddriverDetailsLookup {
+  /** Runs every call on the caller's thread, for when no shared lookup is configured. */
+  static final ClouddriverDetailsLookup SAME_THREAD = new ClouddriverDetailsLookup({ Runnable runnable ->
+    runnable.run()
+  } as Executor)
+
+  private final Executor executor
+
+  /**
+   * Accounts converted to maps (for insight contexts), by name, for the account snapshot they were
+   * converted from.
+   */
+  private final AtomicReference<ConvertedAccounts> convertedAccounts = new AtomicReference<>()
+
+  @Autowired
+  ClouddriverDetailsLookup(@Value('${services.clouddriver.details-lookup.threads:16}') int threads,
+                           @Value('${services.clouddriver.details-lookup.queue-capacity:64}') int queueCapacity) {
+    this(newExecutor(threads, queueCapacity))
+  }
+
+  ClouddriverDetailsLookup(Executor executor) {
+    this.executor = executor
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (executor instanceof ExecutorService) {
+      ((ExecutorService) executor).shutdown()
+    }
+  }
+
+  /** Run {@code task} on another thread, with the MDC and request context of the caller. */
+  public <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+    Callable<T> propagated = AuthenticatedRequest.propagate(
+      task, false, SecurityContextHolder.context?.authentication?.principal
+    )
+    MdcWrappedCallable<T> callable = new MdcWrappedCallable<T>() {
+      @Override
+      T callWithMdc() throws Exception {
+        return propagated.call()
+      }
+    }
+
+    return CompletableFuture.supplyAsync({
+      try {
+        return callable.call()
+      } catch (RuntimeException e) {
+        throw e
+      } catch (Exception e) {
+        throw new CompletionException(e)
+      }
+    }, executor)
+  }
+
+  /**
+   * @return the details of {@code account} as a map, from the account snapshot of {@code
+   *     accountLookupService} (if available and the account is known to it), otherwise from
+   *     Clouddriver
+   */
+  CompletableFuture<Map> getAccountDetails(ClouddriverService clouddriverService,
+                                           AccountLookupService accountLookupService,
+                                           ObjectMapper objectMapper,
+                                           String account) {
+    if (accountLookupService != null) {
+      List<ClouddriverService.AccountDetails> accounts = accountLookupService.getAccounts()
+      ConvertedAccounts converted = convertedAccounts.get()
+      if (converted == null || !converted.accounts.is(accounts)) {
+        converted = new ConvertedAccounts(accounts)
+        convertedAccounts.set(converted)
+      }
+
+      Map accountDetails = converted.byName.get(account)
+      if (accountDetails == null) {
+        ClouddriverService.AccountDetails cachedAccount = accountLookupService.getAccount(account)
+        if (cachedAccount != null) {
+          accountDetails = objectMapper.convertValue(cachedAccount, Map)
+          converted.byName.put(account, accountDetails)
+        }
+      }
+      if (accountDetails != null) {
+        return CompletableFuture.completedFuture(accountDetails)
+      }
+    }
+
+    return supplyAsync({
+      objectMapper.convertValue(Retrofit2SyncCall.execute(clouddriverService.getAccount(account)), Map)
+    } as Callable<Map>)
+  }
+
+  /** @return the result of {@code future}, rethrowing the exception it completed with (if any) */
+  static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join()
+    } catch (CompletionException e) {
+      if (e.cause instanceof RuntimeException) {
+        throw (RuntimeException) e.cause
+      }
+      throw e
+    }
+  }
+
+  private static Executor newExecutor(int threads, int queueCapacity) {
+    AtomicInteger threadCount = new AtomicInteger()
+    return new ThreadPoolExecutor(
+      Math.max(threads, 1),
+      Math.max(threads, 1),
+      0L,
+      TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<Runnable>(Math.max(queueCapacity, 1)),
+      { Runnable runnable ->
+        Thread thread = new Thread(runnable, "clouddriver-details-lookup-${threadCount.incrementAndGet()}")
+        thread.setDaemon(true)
+        return thread
+      } as ThreadFactory,
+      new ThreadPoolExecutor.CallerRunsPolicy()
+    )
+  }
+
+  private static class ConvertedAccounts {
+    final List<ClouddriverService.AccountDetails> accounts
+    final Map<String, Map> byName = new ConcurrentHashMap<>()
+
+    ConvertedAccounts(List<ClouddriverService.AccountDetails> accounts) {
+      this.accounts = accounts
+    }
+  }
+}
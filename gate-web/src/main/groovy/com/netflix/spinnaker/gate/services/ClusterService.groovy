@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.gate.services
 
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService
 import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
 import com.netflix.spinnaker.kork.exceptions.SpinnakerException
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall
@@ -27,6 +28,8 @@ import org.springframework.http.HttpStatus
 import org.springframework.stereotype.Component
 import org.springframework.web.bind.annotation.ResponseStatus
 
+import java.util.function.Function
+
 @CompileStatic
 @Component
 class ClusterService {
@@ -37,8 +40,14 @@ class ClusterService {
   @Autowired
   ProviderLookupService providerLookupService
 
+  @Autowired(required = false)
+  ClouddriverReadCoalescer readCoalescer
+
   Map getClusters(String app, String selectorKey) {
-    Retrofit2SyncCall.execute(clouddriverServiceSelector.select().getClusters(app))
+    def coalescer = readCoalescer ?: ClouddriverReadCoalescer.DISABLED
+    coalescer.execute(ClouddriverReadCoalescer.CLUSTERS, clouddriverServiceSelector.select(), { ClouddriverService service ->
+      Retrofit2SyncCall.execute(service.getClusters(app))
+    } as Function<ClouddriverService, Map>, app)
   }
 
   List<Map> getClustersForAccount(String app, String account, String selectorKey) {
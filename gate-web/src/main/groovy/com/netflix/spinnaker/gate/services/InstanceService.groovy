@@ -20,12 +20,16 @@ package com.netflix.spinnaker.gate.services
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.frigga.Names
 import com.netflix.spinnaker.gate.config.InsightConfiguration
+import com.netflix.spinnaker.gate.config.InsightConfiguration.InsightContext
 import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall
 import groovy.transform.CompileStatic
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.stereotype.Component
 
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+
 @CompileStatic
 @Component
 class InstanceService {
@@ -42,18 +46,33 @@ class InstanceService {
   @Autowired
   ObjectMapper objectMapper
 
+  @Autowired(required = false)
+  AccountLookupService accountLookupService
+
+  @Autowired(required = false)
+  ClouddriverDetailsLookup detailsLookup
+
   Map getForAccountAndRegion(String account, String region, String instanceId, String selectorKey) {
     def service = clouddriverServiceSelector.select()
-    def accountDetails = objectMapper.convertValue(Retrofit2SyncCall.execute(service.getAccount(account)), Map)
-    def instanceDetails = Retrofit2SyncCall.execute(service.getInstanceDetails(account, region, instanceId))
-    def instanceContext = instanceDetails.collectEntries {
-      return it.value instanceof String ? [it.key, it.value] : [it.key, ""]
-    } as Map<String, String>
+    def lookup = detailsLookup ?: ClouddriverDetailsLookup.SAME_THREAD
+    // the account and instance are looked up concurrently
+    CompletableFuture<Map> accountDetailsFuture = lookup.getAccountDetails(service, accountLookupService, objectMapper, account)
+    CompletableFuture<Map> instanceDetailsFuture = lookup.supplyAsync({
+      Retrofit2SyncCall.execute(service.getInstanceDetails(account, region, instanceId))
+    } as Callable<Map>)
+
+    def instanceDetails = ClouddriverDetailsLookup.join(instanceDetailsFuture)
+    def accountDetails = ClouddriverDetailsLookup.join(accountDetailsFuture)
     String application
-    if (instanceContext.serverGroup) {
-      application = Names.parseName(instanceContext.serverGroup)?.app
+    def serverGroup = instanceDetails.serverGroup
+    if (serverGroup instanceof String && serverGroup) {
+      application = Names.parseName((String) serverGroup)?.app
     }
-    def context = getContext(account, region, instanceId) + instanceContext + accountDetails + ["application": application]
+    def context = new InsightContext()
+      .with(getContext(account, region, instanceId))
+      .withStringValues(instanceDetails)
+      .with(accountDetails)
+      .with(["application": application])
     return instanceDetails + [
         "insightActions": insightConfiguration.instance.findResults { it.applyContext(context) }
     ]
@@ -18,6 +18,8 @@ package com.netflix.spinnaker.gate.services
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.gate.config.InsightConfiguration
+import com.netflix.spinnaker.gate.config.InsightConfiguration.InsightContext
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService
 import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerHttpException
@@ -25,6 +27,8 @@ import groovy.transform.CompileStatic
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.stereotype.Component
 
+import java.util.function.Function
+
 @CompileStatic
 @Component
 class LoadBalancerService {
@@ -39,8 +43,14 @@ class LoadBalancerService {
   @Autowired
   ObjectMapper objectMapper
 
+  @Autowired(required = false)
+  ClouddriverReadCoalescer readCoalescer
+
   List getAll(String provider = "aws", String selectorKey) {
-    Retrofit2SyncCall.execute(clouddriverServiceSelector.select().getLoadBalancers(provider))
+    def coalescer = readCoalescer ?: ClouddriverReadCoalescer.DISABLED
+    coalescer.execute(ClouddriverReadCoalescer.LOAD_BALANCERS, clouddriverServiceSelector.select(), { ClouddriverService service ->
+      Retrofit2SyncCall.execute(service.getLoadBalancers(provider))
+    } as Function<ClouddriverService, List>, provider)
   }
 
   Map get(String name, String selectorKey, String provider = "aws") {
@@ -54,11 +64,10 @@ class LoadBalancerService {
       def loadBalancerDetails = Retrofit2SyncCall.execute(service.getLoadBalancerDetails(provider, account, region, name))
 
       loadBalancerDetails = loadBalancerDetails.collect { loadBalancerDetail ->
-        def loadBalancerContext = loadBalancerDetail.collectEntries {
-          return it.value instanceof String ? [it.key, it.value] : [it.key, ""]
-        } as Map<String, String>
-
-        def context = [ "account": account, "region": region ] + loadBalancerContext + accountDetails
+        def context = new InsightContext()
+          .with([ "account": account, "region": region ])
+          .withStringValues(loadBalancerDetail)
+          .with(accountDetails)
         def foo = loadBalancerDetail + [
           "insightActions": insightConfiguration.loadBalancer.findResults { it.applyContext(context) }
         ]
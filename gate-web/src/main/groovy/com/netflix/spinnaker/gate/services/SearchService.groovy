@@ -17,10 +17,16 @@
 
 package com.netflix.spinnaker.gate.services
 
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall
 import groovy.transform.CompileStatic
+import okhttp3.ResponseBody
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.stereotype.Component
 
 @CompileStatic
@@ -30,7 +36,114 @@ class SearchService {
   @Autowired
   ClouddriverServiceSelector clouddriverServiceSelector
 
+  @Autowired
+  ObjectMapper objectMapper
+
+  /**
+   * Upper bound on the page size requested from clouddriver, and on the number of results relayed
+   * per page when streaming.
+   */
+  @Value('${services.clouddriver.search.max-page-size:10000}')
+  int maxPageSize = 10000
+
   List<Map> search(String query, String type, String platform, String selectorKey, int pageSize = 10000, int page = 1, Map<String, String> filters) {
-    return Retrofit2SyncCall.execute(clouddriverServiceSelector.select().search(query, type, platform, pageSize, page, filters))
+    return Retrofit2SyncCall.execute(clouddriverServiceSelector.select().search(query, type, platform, capPageSize(pageSize), page, filters))
+  }
+
+  /**
+   * Relays clouddriver's search response to {@code outputStream} token by token, rather than
+   * materializing it, dropping any results beyond the (capped) page size.
+   */
+  void search(String query, String type, String platform, String selectorKey, int pageSize, int page, Map<String, String> filters, OutputStream outputStream) {
+    int cappedPageSize = capPageSize(pageSize)
+    ResponseBody body = Retrofit2SyncCall.execute(
+      clouddriverServiceSelector.select().searchStream(query, type, platform, cappedPageSize, page, filters)
+    )
+
+    body.withCloseable {
+      JsonParser parser = objectMapper.factory.createParser(body.byteStream())
+      JsonGenerator generator = objectMapper.factory.createGenerator(outputStream)
+      try {
+        if (parser.nextToken() != null) {
+          copy(parser, generator, cappedPageSize)
+        }
+      } finally {
+        generator.flush()
+        parser.close()
+      }
+    }
+  }
+
+  /**
+   * @return the first result (of the first page) of a search, or null if there are none; the
+   *     clouddriver response is only read up to that result
+   */
+  Map searchFirst(String query, String type, String platform, String selectorKey, Map<String, String> filters) {
+    ResponseBody body = Retrofit2SyncCall.execute(
+      clouddriverServiceSelector.select().searchStream(query, type, platform, 1, 1, filters)
+    )
+
+    return body.withCloseable {
+      JsonParser parser = objectMapper.factory.createParser(body.byteStream())
+      try {
+        if (parser.nextToken() != JsonToken.START_ARRAY || parser.nextToken() != JsonToken.START_OBJECT) {
+          return null
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName
+          JsonToken value = parser.nextToken()
+          if (field == "results" && value == JsonToken.START_ARRAY) {
+            return parser.nextToken() == JsonToken.START_OBJECT ? objectMapper.readValue(parser, Map) : null
+          }
+          parser.skipChildren()
+        }
+        return null
+      } finally {
+        parser.close()
+      }
+    } as Map
+  }
+
+  private int capPageSize(int pageSize) {
+    return Math.max(1, Math.min(pageSize, maxPageSize))
+  }
+
+  /**
+   * Copies the structure the parser is positioned at, limiting any "results" array of an object to
+   * {@code resultsLimit} elements.
+   */
+  private static void copy(JsonParser parser, JsonGenerator generator, int resultsLimit) {
+    JsonToken token = parser.currentToken()
+    if (token == JsonToken.START_OBJECT) {
+      generator.writeStartObject()
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName
+        generator.writeFieldName(field)
+        if (parser.nextToken() == JsonToken.START_ARRAY && field == "results") {
+          generator.writeStartArray()
+          int results = 0
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (results++ < resultsLimit) {
+              generator.copyCurrentStructure(parser)
+            } else {
+              parser.skipChildren()
+            }
+          }
+          generator.writeEndArray()
+        } else {
+          copy(parser, generator, resultsLimit)
+        }
+      }
+      generator.writeEndObject()
+    } else if (token == JsonToken.START_ARRAY) {
+      generator.writeStartArray()
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        copy(parser, generator, resultsLimit)
+      }
+      generator.writeEndArray()
+    } else {
+      generator.copyCurrentEvent(parser)
+    }
   }
 }
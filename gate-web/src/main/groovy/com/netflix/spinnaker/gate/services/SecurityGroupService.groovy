@@ -16,12 +16,15 @@
 
 package com.netflix.spinnaker.gate.services
 
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService
 import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall
 import groovy.transform.CompileStatic
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.stereotype.Component
 
+import java.util.function.Function
+
 @CompileStatic
 @Component
 class SecurityGroupService {
@@ -29,11 +32,20 @@ class SecurityGroupService {
   @Autowired
   ClouddriverServiceSelector clouddriverServiceSelector
 
+  @Autowired
+  SearchService searchService
+
+  @Autowired(required = false)
+  ClouddriverReadCoalescer readCoalescer
+
   /**
    * Keyed by account
    */
   Map getAll(String selectorKey) {
-    Retrofit2SyncCall.execute(clouddriverServiceSelector.select().securityGroups)
+    def coalescer = readCoalescer ?: ClouddriverReadCoalescer.DISABLED
+    coalescer.execute(ClouddriverReadCoalescer.SECURITY_GROUPS, clouddriverServiceSelector.select(), { ClouddriverService service ->
+      Retrofit2SyncCall.execute(service.securityGroups)
+    } as Function<ClouddriverService, Map>)
   }
 
   /**
@@ -43,9 +55,9 @@ class SecurityGroupService {
    * @return
    */
   Map getById(String id, String selectorKey) {
-    def result = Retrofit2SyncCall.execute(clouddriverServiceSelector.select().search(id, "securityGroups", null, 10000, 1, [:]))[0]
-    if (result.results) {
-      Map firstResult = ((List<Map>)result.results)[0]
+    // only the first match is read from clouddriver's response
+    Map firstResult = searchService.searchFirst(id, "securityGroups", null, selectorKey, [:])
+    if (firstResult) {
       String uriString = firstResult.url
       String vpcId = firstResult.vpcId
       def uri = new URI(uriString)
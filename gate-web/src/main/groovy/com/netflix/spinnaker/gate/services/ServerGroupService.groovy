@@ -20,6 +20,8 @@ package com.netflix.spinnaker.gate.services
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.frigga.Names
 import com.netflix.spinnaker.gate.config.InsightConfiguration
+import com.netflix.spinnaker.gate.config.InsightConfiguration.InsightContext
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService
 import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerHttpException
@@ -27,6 +29,10 @@ import groovy.transform.CompileStatic
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.stereotype.Component
 
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.function.Function
+
 @CompileStatic
 @Component
 class ServerGroupService {
@@ -43,9 +49,21 @@ class ServerGroupService {
   @Autowired
   ProviderLookupService providerLookupService
 
+  @Autowired(required = false)
+  AccountLookupService accountLookupService
+
+  @Autowired(required = false)
+  ClouddriverReadCoalescer readCoalescer
+
+  @Autowired(required = false)
+  ClouddriverDetailsLookup detailsLookup
+
   List getForApplication(String applicationName, String expand, String cloudProvider, String clusters, String selectorKey) {
     String commandKey = Boolean.valueOf(expand) ? "getExpandedServerGroupsForApplication" : "getServerGroupsForApplication"
-    Retrofit2SyncCall.execute(clouddriverServiceSelector.select().getServerGroups(applicationName, expand, cloudProvider, clusters))
+    def coalescer = readCoalescer ?: ClouddriverReadCoalescer.DISABLED
+    coalescer.execute(ClouddriverReadCoalescer.SERVER_GROUPS, clouddriverServiceSelector.select(), { ClouddriverService service ->
+      Retrofit2SyncCall.execute(service.getServerGroups(applicationName, expand, cloudProvider, clusters))
+    } as Function<ClouddriverService, List>, applicationName, expand, cloudProvider, clusters)
   }
 
   List getForApplications(List<String> applications, String cloudProvider, String selectorKey) {
@@ -59,13 +77,19 @@ class ServerGroupService {
   Map getForApplicationAndAccountAndRegion(String applicationName, String account, String region, String serverGroupName, String selectorKey, String includeDetails) {
     try {
       def service = clouddriverServiceSelector.select()
-      def accountDetails = objectMapper.convertValue(Retrofit2SyncCall.execute(service.getAccount(account)), Map)
-      def serverGroupDetails = Retrofit2SyncCall.execute(service.getServerGroupDetails(applicationName, account, region, serverGroupName, includeDetails))
-      def serverGroupContext = serverGroupDetails.collectEntries {
-        return it.value instanceof String ? [it.key, it.value] : [it.key, ""]
-      } as Map<String, String>
+      def lookup = detailsLookup ?: ClouddriverDetailsLookup.SAME_THREAD
+      // the account and server group are looked up concurrently
+      CompletableFuture<Map> accountDetailsFuture = lookup.getAccountDetails(service, accountLookupService, objectMapper, account)
+      CompletableFuture<Map> serverGroupDetailsFuture = lookup.supplyAsync({
+        Retrofit2SyncCall.execute(service.getServerGroupDetails(applicationName, account, region, serverGroupName, includeDetails))
+      } as Callable<Map>)
 
-      def context = getContext(applicationName, account, region, serverGroupName) + serverGroupContext + accountDetails
+      def serverGroupDetails = ClouddriverDetailsLookup.join(serverGroupDetailsFuture)
+      def accountDetails = ClouddriverDetailsLookup.join(accountDetailsFuture)
+      def context = new InsightContext()
+        .with(getContext(applicationName, account, region, serverGroupName))
+        .withStringValues(serverGroupDetails)
+        .with(accountDetails)
       return serverGroupDetails + [
         "insightActions": insightConfiguration.serverGroup.findResults { it.applyContext(context) }
       ]
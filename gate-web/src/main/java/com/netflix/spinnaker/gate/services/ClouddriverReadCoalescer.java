@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services;
+
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService;
+import com.netflix.spinnaker.security.AuthenticatedRequest;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent, identical Clouddriver reads (ie. many users opening the same application)
+ * into a single upstream call.
+ *
+ * <p>Calls are identical when they are for the same endpoint and arguments, against the same
+ * selected {@link ClouddriverService}, on behalf of the same user and accounts (as forwarded to
+ * Clouddriver). Callers arriving while a call is in flight wait for, and share, its result; a
+ * completed result is also shared for {@code services.clouddriver.coalescing.ttl-ms} after it
+ * arrives. Failures are never cached, they are propagated to every waiting caller.
+ *
+ * <p>Shared results must be treated as read-only by callers.
+ *
+ * <p>Coalescing is disabled by default, and only applies to the endpoints listed in {@code
+ * services.clouddriver.coalescing.endpoints}. Calls are counted by the {@code
+ * clouddriver.coalescing.calls} counter, tagged with the endpoint and whether the call was {@code
+ * issued} upstream or {@code coalesced}.
+ */
+@Component
+public class ClouddriverReadCoalescer {
+  public static final String CLUSTERS = "clusters";
+  public static final String SERVER_GROUPS = "serverGroups";
+  public static final String LOAD_BALANCERS = "loadBalancers";
+  public static final String SECURITY_GROUPS = "securityGroups";
+
+  /** Invokes every call directly, for when no coalescer is configured. */
+  public static final ClouddriverReadCoalescer DISABLED =
+      new ClouddriverReadCoalescer(new NoopRegistry(), false, 0, List.of());
+
+  private final Registry registry;
+  private final boolean enabled;
+  private final long ttlMs;
+  private final Set<String> endpoints;
+  private final LongSupplier clock;
+
+  private final ConcurrentMap<Key, Flight> flights = new ConcurrentHashMap<>();
+  private final AtomicLong nextSweepAt = new AtomicLong();
+
+  @Autowired
+  public ClouddriverReadCoalescer(
+      Registry registry,
+      @Value("${services.clouddriver.coalescing.enabled:false}") boolean enabled,
+      @Value("${services.clouddriver.coalescing.ttl-ms:0}") long ttlMs,
+      @Value(
+              "${services.clouddriver.coalescing.endpoints:"
+                  + "clusters,serverGroups,loadBalancers,securityGroups}")
+          List<String> endpoints) {
+    this(registry, enabled, ttlMs, endpoints, System::currentTimeMillis);
+  }
+
+  ClouddriverReadCoalescer(
+      Registry registry,
+      boolean enabled,
+      long ttlMs,
+      List<String> endpoints,
+      LongSupplier clock) {
+    this.registry = registry;
+    this.enabled = enabled;
+    this.ttlMs = Math.max(0, ttlMs);
+    this.endpoints = new HashSet<>(endpoints);
+    this.clock = clock;
+  }
+
+  /**
+   * @param endpoint the endpoint being read (ie. {@link #CLUSTERS}), for per-endpoint enablement
+   *     and metrics
+   * @param service the selected Clouddriver service
+   * @param call makes the upstream call against {@code service}
+   * @param args the arguments of the call
+   * @return the result of {@code call}, or of an identical call made concurrently (or within the
+   *     ttl) by another caller
+   */
+  public <T> T execute(
+      String endpoint,
+      ClouddriverService service,
+      Function<ClouddriverService, T> call,
+      Object... args) {
+    if (!enabled || !endpoints.contains(endpoint)) {
+      return call.apply(service);
+    }
+
+    long now = clock.getAsLong();
+    Key key =
+        new Key(
+            endpoint,
+            service,
+            Arrays.asList(args),
+            AuthenticatedRequest.getSpinnakerUser().orElse(null),
+            AuthenticatedRequest.getSpinnakerAccounts().orElse(null));
+
+    Flight flight = new Flight();
+    Flight existing =
+        flights.compute(
+            key, (k, current) -> current == null || current.isExpired(now) ? flight : current);
+    if (existing != flight) {
+      registry
+          .counter("clouddriver.coalescing.calls", "endpoint", endpoint, "result", "coalesced")
+          .increment();
+      return join(existing);
+    }
+
+    registry
+        .counter("clouddriver.coalescing.calls", "endpoint", endpoint, "result", "issued")
+        .increment();
+    sweepExpired(now);
+    try {
+      T result = call.apply(service);
+      if (ttlMs > 0) {
+        flight.expiresAt = clock.getAsLong() + ttlMs;
+      } else {
+        flights.remove(key, flight);
+      }
+      flight.result.complete(result);
+      return result;
+    } catch (Throwable t) {
+      // including checked exceptions that (ie. Groovy) calls throw without declaring them, as a
+      // flight that is never completed would block every later caller
+      flights.remove(key, flight);
+      flight.result.completeExceptionally(t);
+      throw t;
+    }
+  }
+
+  /**
+   * Forget completed results that are past their ttl, so that the map doesn't grow unbounded.
+   *
+   * <p>Expired results are replaced as they are looked up, so this only needs to catch those that
+   * are no longer being asked for, and runs at most once per ttl.
+   */
+  private void sweepExpired(long now) {
+    if (ttlMs == 0) {
+      return;
+    }
+
+    long sweepAt = nextSweepAt.get();
+    if (now >= sweepAt && nextSweepAt.compareAndSet(sweepAt, now + ttlMs)) {
+      flights.values().removeIf(flight -> flight.isExpired(now));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T join(Flight flight) {
+    try {
+      return (T) flight.result.join();
+    } catch (CompletionException e) {
+      throw ClouddriverReadCoalescer.<RuntimeException>sneakyThrow(e.getCause());
+    }
+  }
+
+  /** Rethrows the failure of a shared call as is, even when it is a checked exception. */
+  @SuppressWarnings("unchecked")
+  private static <E extends Throwable> E sneakyThrow(Throwable t) throws E {
+    throw (E) t;
+  }
+
+  private static class Flight {
+    final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    /** When the (completed) result stops being shared, {@link Long#MAX_VALUE} while in flight. */
+    volatile long expiresAt = Long.MAX_VALUE;
+
+    boolean isExpired(long now) {
+      return now >= expiresAt;
+    }
+  }
+
+  private static class Key {
+    private final String endpoint;
+    private final ClouddriverService service;
+    private final List<Object> args;
+    private final String user;
+    private final String accounts;
+
+    Key(
+        String endpoint,
+        ClouddriverService service,
+        List<Object> args,
+        String user,
+        String accounts) {
+      this.endpoint = endpoint;
+      this.service = service;
+      this.args = args;
+      this.user = user;
+      this.accounts = accounts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return endpoint.equals(key.endpoint)
+          && service == key.service
+          && args.equals(key.args)
+          && Objects.equals(user, key.user)
+          && Objects.equals(accounts, key.accounts);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(endpoint, System.identityHashCode(service), args, user, accounts);
+    }
+  }
+}
@@ -16,28 +16,261 @@
 
 package com.netflix.spinnaker.gate.services;
 
-import java.util.Set;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.SetParams;
 
+/**
+ * Purges Spring sessions from Redis.
+ *
+ * <p>Session keys are found incrementally with {@code SCAN} (rather than a blocking {@code KEYS})
+ * and removed in batches with {@code UNLINK}, falling back to {@code DEL} on Redis versions without
+ * it, pausing between batches so that the purge doesn't starve the rate limiter and session lookups
+ * sharing the same Redis. The scan cursor is saved after every batch, so that a purge interrupted
+ * by a restart resumes where it left off, as long as it is resumed within {@code
+ * sessions.purge.resume-window-ms} (the saved cursor expires after that, so that an abandoned purge
+ * does not log out everyone who has signed in since).
+ *
+ * <p>Only one gate at a time owns the saved cursor, by holding a lock in Redis that expires unless
+ * it is refreshed with every batch. An interrupted purge is only resumed by a gate that can take
+ * the lock, and a purge started while another gate holds it scans every session without saving its
+ * progress.
+ *
+ * <p>Progress is reported through the {@code sessions.purge.inProgress} gauge and the {@code
+ * sessions.purge.deletedKeys} counter.
+ */
 @Component
 public class SessionService {
+  private static final Logger log = LoggerFactory.getLogger(SessionService.class);
+
+  static final String SESSION_KEY_PATTERN = "spring:session*";
+  static final String PURGE_CURSOR_KEY = "gate:sessionPurge:cursor";
+  static final String PURGE_LOCK_KEY = "gate:sessionPurge:lock";
+
+  private static final long PURGE_LOCK_TTL_MS = 60_000;
+  private static final String RELEASE_LOCK_SCRIPT =
+      "if redis.call('GET', KEYS[1]) == ARGV[1] then\n"
+          + "  return redis.call('DEL', KEYS[1])\n"
+          + "end\n"
+          + "return 0\n";
 
   private final JedisPool jedisPool;
+  private final int batchSize;
+  private final long pauseBetweenBatchesMs;
+  private final long resumeWindowMs;
+  private final String lockOwner = UUID.randomUUID().toString();
+
+  private final ExecutorService purgeExecutor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "session-purge");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final AtomicReference<CompletableFuture<Long>> inFlightPurge = new AtomicReference<>();
+  private volatile boolean unlinkSupported = true;
+
+  private final AtomicLong inProgress = new AtomicLong();
+  private final Counter deletedKeys;
+
+  public SessionService(JedisPool jedisPool) {
+    this(jedisPool, new NoopRegistry(), 500, 10);
+  }
+
+  public SessionService(
+      JedisPool jedisPool, Registry registry, int batchSize, long pauseBetweenBatchesMs) {
+    this(jedisPool, registry, batchSize, pauseBetweenBatchesMs, 3_600_000);
+  }
 
-  public SessionService(@Autowired JedisPool jedisPool) {
+  @Autowired
+  public SessionService(
+      JedisPool jedisPool,
+      Registry registry,
+      @Value("${sessions.purge.batch-size:500}") int batchSize,
+      @Value("${sessions.purge.pause-between-batches-ms:10}") long pauseBetweenBatchesMs,
+      @Value("${sessions.purge.resume-window-ms:3600000}") long resumeWindowMs) {
     this.jedisPool = jedisPool;
+    this.batchSize = batchSize;
+    this.pauseBetweenBatchesMs = pauseBetweenBatchesMs;
+    this.resumeWindowMs = Math.max(resumeWindowMs, 1);
+    this.deletedKeys = registry.counter("sessions.purge.deletedKeys");
+    registry.gauge("sessions.purge.inProgress", inProgress);
   }
 
+  /**
+   * Resume a purge that was interrupted (ie. by a restart) before it completed, unless another gate
+   * is already purging.
+   */
+  @PostConstruct
+  public void resumeInterruptedPurge() {
+    String cursor;
+    try (Jedis jedis = jedisPool.getResource()) {
+      cursor = jedis.get(PURGE_CURSOR_KEY);
+      if (cursor != null && jedis.exists(PURGE_LOCK_KEY)) {
+        log.info("Not resuming interrupted session purge, another instance is purging sessions");
+        return;
+      }
+    } catch (JedisException e) {
+      log.warn("Unable to determine whether a session purge was interrupted", e);
+      return;
+    }
+
+    if (cursor != null) {
+      log.info("Resuming interrupted session purge (cursor: {})", cursor);
+      startPurge(true);
+    }
+  }
+
+  /**
+   * Delete every Spring session, blocking until the purge completes. Concurrent callers share the
+   * same purge.
+   */
   public void deleteSpringSessions() {
+    try {
+      startPurge(false).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * @param resume whether the purge is only resuming an interrupted one, and should not run at all
+   *     if another gate owns the saved cursor
+   * @return the number of session keys deleted by the purge
+   */
+  private CompletableFuture<Long> startPurge(boolean resume) {
+    CompletableFuture<Long> purge = new CompletableFuture<>();
+    CompletableFuture<Long> existing = inFlightPurge.compareAndExchange(null, purge);
+    if (existing != null) {
+      return existing;
+    }
+
+    purgeExecutor.execute(
+        () -> {
+          inProgress.set(1);
+          long deleted = 0;
+          Throwable failure = null;
+          try {
+            deleted = purge(resume);
+          } catch (Throwable t) {
+            log.error("Session purge failed, it will resume from its last position", t);
+            failure = t;
+          } finally {
+            inProgress.set(0);
+            // sessions created from here on need a new purge
+            inFlightPurge.set(null);
+          }
+
+          if (failure != null) {
+            purge.completeExceptionally(failure);
+          } else {
+            purge.complete(deleted);
+          }
+        });
+    return purge;
+  }
+
+  private long purge(boolean resume) throws InterruptedException {
+    ScanParams scanParams = new ScanParams().match(SESSION_KEY_PATTERN).count(batchSize);
+    long deleted = 0;
+
+    boolean ownsCursor;
+    String cursor = ScanParams.SCAN_POINTER_START;
     try (Jedis jedis = jedisPool.getResource()) {
-      Set<String> keys = jedis.keys("spring:session*");
+      String locked =
+          jedis.set(PURGE_LOCK_KEY, lockOwner, SetParams.setParams().nx().px(PURGE_LOCK_TTL_MS));
+      ownsCursor = "OK".equals(locked);
+      if (ownsCursor) {
+        String savedCursor = jedis.get(PURGE_CURSOR_KEY);
+        cursor = savedCursor != null ? savedCursor : ScanParams.SCAN_POINTER_START;
+      } else if (resume) {
+        log.info("Not resuming interrupted session purge, another instance is purging sessions");
+        return 0;
+      }
+    }
+
+    try {
+      do {
+        try (Jedis jedis = jedisPool.getResource()) {
+          ScanResult<String> result = jedis.scan(cursor, scanParams);
+          List<String> keys = result.getResult();
+          if (!keys.isEmpty()) {
+            deleted += delete(jedis, keys.toArray(new String[0]));
+          }
+
+          cursor = result.getCursor();
+          if (ownsCursor) {
+            if (ScanParams.SCAN_POINTER_START.equals(cursor)) {
+              jedis.del(PURGE_CURSOR_KEY);
+            } else {
+              jedis.set(PURGE_CURSOR_KEY, cursor, SetParams.setParams().px(resumeWindowMs));
+              jedis.pexpire(PURGE_LOCK_KEY, PURGE_LOCK_TTL_MS);
+            }
+          }
+        }
 
-      if (!keys.isEmpty()) {
-        jedis.del(keys.toArray(new String[0]));
+        if (pauseBetweenBatchesMs > 0 && !ScanParams.SCAN_POINTER_START.equals(cursor)) {
+          Thread.sleep(pauseBetweenBatchesMs);
+        }
+      } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+    } finally {
+      if (ownsCursor) {
+        releaseLock();
       }
     }
+
+    log.info("Purged {} session keys", deleted);
+    return deleted;
+  }
+
+  private void releaseLock() {
+    try (Jedis jedis = jedisPool.getResource()) {
+      jedis.eval(RELEASE_LOCK_SCRIPT, List.of(PURGE_LOCK_KEY), List.of(lockOwner));
+    } catch (JedisException e) {
+      log.warn("Unable to release the session purge lock, it will expire", e);
+    }
+  }
+
+  private long delete(Jedis jedis, String[] keys) {
+    long deleted;
+    if (unlinkSupported) {
+      try {
+        deleted = jedis.unlink(keys);
+      } catch (JedisDataException e) {
+        // UNLINK requires redis 4.0
+        log.info("UNLINK is not supported, falling back to DEL ({})", e.getMessage());
+        unlinkSupported = false;
+        deleted = jedis.del(keys);
+      }
+    } else {
+      deleted = jedis.del(keys);
+    }
+
+    deletedKeys.increment(deleted);
+    return deleted;
   }
 }
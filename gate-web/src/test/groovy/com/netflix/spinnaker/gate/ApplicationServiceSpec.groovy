@@ -367,6 +367,91 @@ class ApplicationServiceSpec extends Specification {
     false        | 2          | [[name:"appname1", email:"foo@bar.bz", accounts:"prod"], [name:"appname2", accounts:"dev"]]
   }
 
+  def "should only re-merge changed applications when incrementalRefresh is enabled"() {
+    given:
+    def clouddriverApp1 = [name: "appname1", attributes: [name: "appname1"], clusterNames: [prod: ["cluster-prod"]]]
+    def clouddriverApp2 = [name: "appname2", attributes: [name: "appname2"], clusterNames: [dev: ["cluster-dev"]]]
+    def front50App1 = [name: "appname1", email: "foo@bar.bz"]
+    def front50App2 = [name: "appname2", email: "foo@bar.bz"]
+    ApplicationConfigurationProperties applicationConfigurationProperties = new ApplicationConfigurationProperties()
+    applicationConfigurationProperties.setIncrementalRefresh(true)
+
+    when:
+    def service = applicationService(applicationConfigurationProperties)
+    service.refreshApplicationsCache()
+    def initialApps = service.getAllApplications()
+
+    then:
+    1 * front50.getAllApplicationsUnrestricted() >> Calls.response([front50App1, front50App2])
+    1 * clouddriver.getAllApplicationsUnrestricted(true) >> Calls.response([clouddriverApp1, clouddriverApp2])
+
+    initialApps == [[name: "appname1", email: "foo@bar.bz", accounts: "prod"], [name: "appname2", email: "foo@bar.bz", accounts: "dev"]]
+
+    when:
+    service.refreshApplicationsCache()
+    def apps = service.getAllApplications()
+
+    then:
+    1 * front50.getAllApplicationsUnrestricted() >> Calls.response([front50App1, front50App2 + [email: "updated@bar.bz"]])
+    1 * clouddriver.getAllApplicationsUnrestricted(true) >> Calls.response([clouddriverApp1, clouddriverApp2])
+
+    apps == [[name: "appname1", email: "foo@bar.bz", accounts: "prod"], [name: "appname2", email: "updated@bar.bz", accounts: "dev"]]
+    apps[0].is(initialApps[0])
+    !apps[1].is(initialApps[1])
+    service.getCachedApplication("APPNAME2").is(apps[1])
+
+    when:
+    service.refreshApplicationsCache()
+    apps = service.getAllApplications()
+
+    then:
+    1 * front50.getAllApplicationsUnrestricted() >> Calls.response([front50App1])
+    1 * clouddriver.getAllApplicationsUnrestricted(true) >> Calls.response([clouddriverApp1])
+
+    apps == [[name: "appname1", email: "foo@bar.bz", accounts: "prod"]]
+    service.getCachedApplication("appname2") == null
+  }
+
+  def "should re-merge applications whose changes preserve their hash code, or when includedAccounts changes"() {
+    given:
+    def clouddriverApp = [name: "appname1", attributes: [name: "appname1"], clusterNames: [prod: ["cluster-prod"]]]
+    def front50Config = new Service(config: [includedAccounts: "prod"])
+    ApplicationConfigurationProperties applicationConfigurationProperties = new ApplicationConfigurationProperties()
+    applicationConfigurationProperties.setIncrementalRefresh(true)
+    def service = new ApplicationService(
+      new ServiceConfiguration(services: [front50: front50Config]),
+      clouddriverSelector,
+      front50,
+      applicationConfigurationProperties
+    )
+
+    and: "'Aa' and 'BB' share a hash code"
+    assert "Aa".hashCode() == "BB".hashCode()
+
+    when:
+    service.refreshApplicationsCache()
+    service.refreshApplicationsCache()
+
+    then:
+    2 * front50.getAllApplicationsUnrestricted() >>> [
+      Calls.response([[name: "appname1", owner: "Aa"]]),
+      Calls.response([[name: "appname1", owner: "BB"]])
+    ]
+    2 * clouddriver.getAllApplicationsUnrestricted(true) >> { Calls.response([clouddriverApp]) }
+
+    service.getAllApplications() == [[name: "appname1", owner: "BB", accounts: "prod"]]
+
+    when:
+    front50Config.config.includedAccounts = "test"
+    service.refreshApplicationsCache()
+
+    then:
+    1 * front50.getAllApplicationsUnrestricted() >> Calls.response([[name: "appname1", owner: "BB"]])
+    1 * clouddriver.getAllApplicationsUnrestricted(true) >> Calls.response([clouddriverApp])
+
+    service.getAllApplications() == []
+  }
+
   @Unroll
   def "should handle front50 returning an exception when useFront50AsSourceOfTruth is #checkFront50"() {
     given:
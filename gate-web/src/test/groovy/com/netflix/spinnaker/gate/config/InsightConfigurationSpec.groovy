@@ -16,7 +16,9 @@
 
 package com.netflix.spinnaker.gate.config
 
+import groovy.text.GStringTemplateEngine
 import spock.lang.Specification
+import spock.lang.Unroll
 
 class InsightConfigurationSpec extends Specification {
   void "should support GString substitution"() {
@@ -57,4 +59,45 @@ class InsightConfigurationSpec extends Specification {
     link.applyContext([cloudProvider: 'titus']) == null
     link.applyContext([cloudProvider: 'aws']).url == 'http://providerLink'
   }
+
+  @Unroll
+  void "should render '#url' the same as the groovy template engine"() {
+    given:
+    def context = [account: "prod", region: "us-west-2", port: 7001, empty: ""]
+    def link = new InsightConfiguration.Link(url: url)
+
+    expect:
+    link.applyContext(context).url == new GStringTemplateEngine().createTemplate(url).make(context.withDefault { null }).toString()
+
+    where:
+    url << [
+      'http://${account}.example.com/${region}?port=${port}',
+      'http://example.com/{DNE}/${missing}/${empty}',
+      '${account}${region}',
+      'http://example.com/$account',
+      'http://example.com/${account.toUpperCase()}',
+      'http://example.com/<%= region %>',
+      'plain'
+    ]
+  }
+
+  void "should only compile literals and simple placeholders"() {
+    expect:
+    InsightConfiguration.Link.compile('http://${account}/x') == ['http://', 'account', '/x'] as String[]
+    InsightConfiguration.Link.compile('http://${account ?: "default"}') == null
+    InsightConfiguration.Link.compile('http://$account') == null
+  }
+
+  void "should look values up from the most recently added context"() {
+    given:
+    def link = new InsightConfiguration.Link(url: 'http://${account}/${region}/${serverGroup}/${ip}', cloudProvider: 'aws')
+    def context = new InsightConfiguration.InsightContext()
+      .with([account: "test", region: "us-east-1", cloudProvider: "titus"])
+      .withStringValues([region: "us-west-2", serverGroup: [name: "app-v001"], ip: "10.0.0.1", cloudProvider: "aws"])
+      .with([account: "prod"])
+
+    expect:
+    link.applyContext(context).url == 'http://prod/us-west-2//10.0.0.1'
+    context.toMap() == [account: "prod", region: "us-west-2", serverGroup: "", ip: "10.0.0.1", cloudProvider: "aws"]
+  }
 }
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.gate.controllers
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.gate.config.ApplicationConfigurationProperties
 import com.netflix.spinnaker.gate.config.ServiceConfiguration
+import com.netflix.spinnaker.gate.security.ApplicationReadPermissions
 import com.netflix.spinnaker.gate.services.ApplicationService
 import com.netflix.spinnaker.gate.services.internal.ClouddriverService
 import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
@@ -32,6 +33,8 @@ import retrofit2.mock.Calls
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.zip.GZIPInputStream
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
@@ -221,4 +224,145 @@ class ApplicationControllerSpec extends Specification {
     endpoint << ["/applications/true-app/strategyConfigs/some-fake-strategy"]
   }
 
+  void 'should serve the unfiltered application list from a pre-encoded snapshot with an etag'() {
+    given:
+    def applications = [[name: 'app1', email: 'a@example.com'], [name: 'app2', email: 'b@example.com']]
+    applicationService.getAllApplicationsCache().set(applications)
+    def mockMvc = applicationsMockMvc(ApplicationReadPermissions.ReadableApplications.ALL)
+
+    when:
+    def response = mockMvc.perform(get("/applications")).andReturn().response
+    def etag = response.getHeader("ETag")
+
+    then:
+    response.status == 200
+    response.contentAsString == new ObjectMapper().writeValueAsString(applications)
+    etag != null
+
+    when:
+    def compressed = mockMvc.perform(get("/applications").header("Accept-Encoding", "gzip, deflate")).andReturn().response
+
+    then:
+    compressed.getHeader("Content-Encoding") == "gzip"
+    compressed.getHeader("ETag") != etag
+    compressed.getHeader("ETag").endsWith('-gzip"')
+    new GZIPInputStream(new ByteArrayInputStream(compressed.contentAsByteArray)).text == response.contentAsString
+
+    when:
+    def notModified = mockMvc.perform(get("/applications").header("If-None-Match", etag)).andReturn().response
+
+    then:
+    notModified.status == 304
+    notModified.contentAsByteArray.length == 0
+    notModified.getHeader("ETag") == etag
+    notModified.getHeader("Vary") == "Accept-Encoding"
+
+    when: "a client that cached the gzip'd list revalidates"
+    def compressedNotModified = mockMvc.perform(get("/applications")
+      .header("Accept-Encoding", "gzip")
+      .header("If-None-Match", compressed.getHeader("ETag"))).andReturn().response
+
+    then:
+    compressedNotModified.status == 304
+    compressedNotModified.getHeader("ETag") == compressed.getHeader("ETag")
+    compressedNotModified.getHeader("Vary") == "Accept-Encoding"
+
+    when: "gzip is explicitly refused"
+    def refused = mockMvc.perform(get("/applications").header("Accept-Encoding", "gzip;q=0, identity")).andReturn().response
+
+    then:
+    refused.getHeader("Content-Encoding") == null
+    refused.getHeader("ETag") == etag
+    refused.contentAsString == response.contentAsString
+
+    when: "the application list is replaced by an equal list, or served by another gate"
+    applicationService.getAllApplicationsCache().set([[name: 'app1', email: 'a@example.com'], [name: 'app2', email: 'b@example.com']])
+    def replaced = mockMvc.perform(get("/applications")).andReturn().response
+    def otherGate = applicationsMockMvc(ApplicationReadPermissions.ReadableApplications.ALL)
+      .perform(get("/applications")).andReturn().response
+
+    then:
+    replaced.getHeader("ETag") == etag
+    otherGate.getHeader("ETag") == etag
+
+    when: "the application list is refreshed"
+    applicationService.getAllApplicationsCache().set([[name: 'app1', email: 'a@example.com']])
+    def refreshed = mockMvc.perform(get("/applications").header("If-None-Match", etag)).andReturn().response
+
+    then:
+    refreshed.status == 200
+    refreshed.getHeader("ETag") != etag
+  }
+
+  void 'should filter the application list by permission, account and owner'() {
+    given:
+    applicationService.getAllApplicationsCache().set([
+      [name: 'app1', accounts: 'prod,test', email: 'A@example.com'],
+      [name: 'app2', accounts: 'test', email: 'a@example.com'],
+      [name: 'secret', accounts: 'prod,test', email: 'a@example.com']
+    ])
+    def readable = Stub(ApplicationReadPermissions.ReadableApplications) {
+      canRead(_) >> { String name -> name != 'secret' }
+    }
+    def mockMvc = applicationsMockMvc(readable)
+
+    when:
+    def response = mockMvc.perform(get("/applications").param("account", "PROD").param("owner", "a@example.com"))
+      .andReturn().response
+
+    then:
+    response.status == 200
+    new ObjectMapper().readValue(response.contentAsString, List)*.name == ['app1']
+
+    when: "the same applications are requested again"
+    def notModified = mockMvc.perform(get("/applications").param("account", "prod")
+      .header("If-None-Match", response.getHeader("ETag"))).andReturn().response
+
+    then:
+    notModified.status == 304
+
+    when: "different applications pass the filters"
+    def other = mockMvc.perform(get("/applications").param("account", "test")
+      .header("If-None-Match", response.getHeader("ETag"))).andReturn().response
+
+    then:
+    other.status == 200
+    new ObjectMapper().readValue(other.contentAsString, List)*.name == ['app1', 'app2']
+  }
+
+  void 'should derive distinct etags for distinct sets of readable applications'() {
+    given: "sets of included indices that collide under a polynomial hash, ie. {0, 62} and {1, 31}"
+    def snapshot = new ApplicationController.ApplicationListSnapshot(
+      (0..62).collect { [name: "app${it}".toString()] as Map },
+      new ObjectMapper()
+    )
+
+    when:
+    def first = snapshot.filter(readable(['app0', 'app62']), null, null)
+    def second = snapshot.filter(readable(['app1', 'app31']), null, null)
+
+    then:
+    first.applications*.name == ['app0', 'app62']
+    second.applications*.name == ['app1', 'app31']
+    first.etag != second.etag
+    snapshot.filter(readable(['app0', 'app62']), null, null).etag == first.etag
+  }
+
+  private ApplicationReadPermissions.ReadableApplications readable(List<String> names) {
+    return Stub(ApplicationReadPermissions.ReadableApplications) {
+      canRead(_) >> { String name -> names.contains(name) }
+    }
+  }
+
+  private MockMvc applicationsMockMvc(ApplicationReadPermissions.ReadableApplications readable) {
+    def applicationReadPermissions = Stub(ApplicationReadPermissions) {
+      forCurrentUser() >> readable
+    }
+    def controller = new ApplicationController(
+      applicationService: applicationService,
+      applicationReadPermissions: applicationReadPermissions,
+      objectMapper: new ObjectMapper()
+    )
+    return MockMvcBuilders.standaloneSetup(controller).build()
+  }
 }
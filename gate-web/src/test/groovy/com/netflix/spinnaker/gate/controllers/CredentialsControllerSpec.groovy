@@ -20,6 +20,7 @@ package com.netflix.spinnaker.gate.controllers
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
 import com.netflix.spinnaker.fiat.shared.FiatStatus
 import com.netflix.spinnaker.gate.security.AllowedAccountsSupport
+import com.netflix.spinnaker.gate.services.AccountIndex
 import com.netflix.spinnaker.gate.services.AccountLookupService
 import com.netflix.spinnaker.gate.services.CredentialsService
 import com.netflix.spinnaker.gate.services.internal.ClouddriverService
@@ -39,9 +40,11 @@ class CredentialsControllerSpec extends Specification {
 
   MockMvc mockMvc
   ClouddriverService clouddriverService = Mock(ClouddriverService)
+  List<ClouddriverService.AccountDetails> accounts = [new ClouddriverService.AccountDetails(name: "test"),
+                                                      new ClouddriverService.AccountDetails(name: "test.com")]
   AccountLookupService accountLookupService = Stub(AccountLookupService) {
-    getAccounts() >> [new ClouddriverService.AccountDetails(name: "test"),
-                      new ClouddriverService.AccountDetails(name: "test.com")]
+    getAccounts() >> accounts
+    getAccountIndex() >> AccountIndex.of(accounts)
   }
 
   void setup() {
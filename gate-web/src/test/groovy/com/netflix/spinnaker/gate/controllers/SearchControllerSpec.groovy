@@ -17,6 +17,8 @@
 package com.netflix.spinnaker.gate.controllers
 
 import com.netflix.spinnaker.gate.services.SearchService
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.web.util.ContentCachingResponseWrapper
 import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Unroll
@@ -51,4 +53,49 @@ class SearchControllerSpec extends Specification {
     "ab"  || true            || 1
     "abc" || true            || 1
   }
+
+  def "should stream search results past any response caching wrapper"() {
+    given:
+    def nativeResponse = new MockHttpServletResponse()
+    def cachingResponse = new ContentCachingResponseWrapper(nativeResponse)
+
+    when:
+    controller.streamSearch("abc", "serverGroups", null, 100, 1, false, null, httpServletRequest, cachingResponse)
+
+    then:
+    1 * searchService.search("abc", "serverGroups", null, null, 100, 1, [:], _ as OutputStream) >> { args ->
+      (args[7] as OutputStream) << '[{"results":[{"name":"abc"}]}]'
+    }
+    nativeResponse.contentType == "application/json"
+    nativeResponse.contentAsString == '[{"results":[{"name":"abc"}]}]'
+    cachingResponse.contentSize == 0
+  }
+
+  def "should stream empty results when `q` parameter is < 3 characters"() {
+    given:
+    def response = new MockHttpServletResponse()
+
+    when:
+    controller.streamSearch("ab", "serverGroups", null, 100, 1, false, null, httpServletRequest, response)
+
+    then:
+    0 * searchService._
+    response.contentAsString == "[]"
+  }
+
+  def "should leave the response uncommitted when the search fails before any results are streamed"() {
+    given:
+    def response = new MockHttpServletResponse()
+
+    when:
+    controller.streamSearch("abc", "serverGroups", null, 100, 1, false, null, httpServletRequest, response)
+
+    then:
+    1 * searchService.search("abc", "serverGroups", null, null, 100, 1, [:], _ as OutputStream) >> {
+      throw new IllegalStateException("clouddriver unavailable")
+    }
+    thrown(IllegalStateException)
+    !response.committed
+    response.contentAsByteArray.length == 0
+  }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.gate.ratelimit
+
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
+import redis.clients.jedis.JedisPool
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class BatchedRedisRateLimiterSpec extends Specification {
+
+  @Shared
+  @AutoCleanup("destroy")
+  EmbeddedRedis embeddedRedis
+
+  def setupSpec() {
+    embeddedRedis = EmbeddedRedis.embed()
+    embeddedRedis.jedis.flushDB()
+  }
+
+  def cleanup() {
+    embeddedRedis.jedis.flushDB()
+  }
+
+  def 'should count requests locally until synchronized'() {
+    given:
+    BatchedRedisRateLimiter subject = new BatchedRedisRateLimiter((JedisPool) embeddedRedis.pool, new NoopRegistry())
+
+    and:
+    RateLimitPrincipal principal = new RateLimitPrincipal('user@example.com', 10, 10, true)
+
+    when:
+    subject.incrementAndGetRate(principal)
+    Rate rate = subject.incrementAndGetRate(principal)
+
+    then:
+    rate.capacity == 10
+    rate.remaining == 8
+    rate.reset > new Date().getTime()
+    !rate.throttled
+    embeddedRedis.jedis.get('rateLimit:user@example.com') == null
+
+    when:
+    subject.sync()
+
+    then:
+    embeddedRedis.jedis.get('rateLimit:user@example.com') == '2'
+    embeddedRedis.jedis.pttl('rateLimit:user@example.com') > 0
+    subject.incrementAndGetRate(principal).remaining == 7
+  }
+
+  def 'should throttle on counts observed across instances'() {
+    given:
+    BatchedRedisRateLimiter instance1 = new BatchedRedisRateLimiter((JedisPool) embeddedRedis.pool, new NoopRegistry())
+    BatchedRedisRateLimiter instance2 = new BatchedRedisRateLimiter((JedisPool) embeddedRedis.pool, new NoopRegistry())
+
+    and:
+    RateLimitPrincipal principal = new RateLimitPrincipal('user@example.com', 10, 3, false)
+
+    when:
+    instance1.incrementAndGetRate(principal)
+    instance1.incrementAndGetRate(principal)
+    instance2.incrementAndGetRate(principal)
+    instance1.sync()
+    instance2.sync()
+
+    then:
+    embeddedRedis.jedis.get('rateLimit:user@example.com') == '3'
+
+    when:
+    Rate rate = instance2.incrementAndGetRate(principal)
+
+    then:
+    rate.remaining == 0
+    rate.throttled
+  }
+
+  def 'should restore a missing expiry on existing keys'() {
+    given:
+    BatchedRedisRateLimiter subject = new BatchedRedisRateLimiter((JedisPool) embeddedRedis.pool, new NoopRegistry())
+    embeddedRedis.jedis.set('rateLimit:user@example.com', '5')
+
+    when:
+    subject.incrementAndGetRate(new RateLimitPrincipal('user@example.com', 10, 10, true))
+    subject.sync()
+
+    then:
+    embeddedRedis.jedis.get('rateLimit:user@example.com') == '6'
+    embeddedRedis.jedis.pttl('rateLimit:user@example.com') > 0
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.gate.ratelimit
+
+import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
+import redis.clients.jedis.JedisPool
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Clock
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class GcraRedisRateLimiterSpec extends Specification {
+
+  @Shared
+  @AutoCleanup("destroy")
+  EmbeddedRedis embeddedRedis
+
+  long now = 1_000_000L
+
+  Clock clock = Stub(Clock) {
+    millis() >> { now }
+  }
+
+  def setupSpec() {
+    embeddedRedis = EmbeddedRedis.embed()
+    embeddedRedis.jedis.flushDB()
+  }
+
+  def cleanup() {
+    embeddedRedis.jedis.flushDB()
+  }
+
+  def 'should allow bursts up to capacity and then throttle'() {
+    given:
+    GcraRedisRateLimiter subject = new GcraRedisRateLimiter((JedisPool) embeddedRedis.pool, clock)
+
+    and:
+    RateLimitPrincipal principal = new RateLimitPrincipal('user@example.com', 10, 3, false)
+
+    when:
+    Rate rate = subject.incrementAndGetRate(principal)
+
+    then:
+    rate.capacity == 3
+    rate.remaining == 2
+    !rate.throttled
+    embeddedRedis.jedis.pttl('rateLimit:gcra:user@example.com') > 0
+
+    when:
+    subject.incrementAndGetRate(principal)
+    rate = subject.incrementAndGetRate(principal)
+
+    then:
+    rate.remaining == 0
+    !rate.throttled
+
+    when:
+    rate = subject.incrementAndGetRate(principal)
+
+    then:
+    rate.remaining == 0
+    rate.throttled
+  }
+
+  def 'should replenish capacity over time'() {
+    given:
+    GcraRedisRateLimiter subject = new GcraRedisRateLimiter((JedisPool) embeddedRedis.pool, clock)
+
+    and:
+    RateLimitPrincipal principal = new RateLimitPrincipal('user@example.com', 10, 10, false)
+
+    when:
+    10.times { subject.incrementAndGetRate(principal) }
+
+    then:
+    subject.incrementAndGetRate(principal).throttled
+
+    when:
+    now += 1000
+    Rate rate = subject.incrementAndGetRate(principal)
+
+    then:
+    !rate.throttled
+    rate.remaining == 0
+
+    when:
+    now += 10000
+    rate = subject.incrementAndGetRate(principal)
+
+    then:
+    !rate.throttled
+    rate.remaining == 9
+  }
+
+  def 'should reload the script if it has been flushed from redis'() {
+    given:
+    GcraRedisRateLimiter subject = new GcraRedisRateLimiter((JedisPool) embeddedRedis.pool, clock)
+    RateLimitPrincipal principal = new RateLimitPrincipal('user@example.com', 10, 10, false)
+
+    when:
+    subject.incrementAndGetRate(principal)
+    embeddedRedis.jedis.scriptFlush()
+    Rate rate = subject.incrementAndGetRate(principal)
+
+    then:
+    rate.remaining == 8
+  }
+
+  def 'should admit exactly capacity requests under concurrency, where the multi-command limiter admits at least capacity'() {
+    given:
+    int capacity = 100
+    int threads = 16
+    int requestsPerThread = 50
+    RateLimitPrincipal principal = new RateLimitPrincipal('user@example.com', 60, capacity, false)
+
+    and:
+    def gcra = new GcraRedisRateLimiter((JedisPool) embeddedRedis.pool, clock)
+    def multiCommand = new RedisRateLimiter((JedisPool) embeddedRedis.pool)
+
+    when:
+    int gcraAdmitted = hammer(gcra, principal, threads, requestsPerThread)
+    int multiCommandAdmitted = hammer(multiCommand, principal, threads, requestsPerThread)
+
+    then:
+    gcraAdmitted == capacity
+    embeddedRedis.jedis.pttl('rateLimit:gcra:user@example.com') > 0
+
+    and: "its separate GET, INCR and PEXPIRE can race, so it may over-admit but never under-admits"
+    multiCommandAdmitted >= capacity
+    multiCommandAdmitted >= gcraAdmitted
+  }
+
+  def 'should admit exactly capacity per period when the emission interval is not a whole number of millis'() {
+    given:
+    now = 1_760_000_000_000L
+    GcraRedisRateLimiter subject = new GcraRedisRateLimiter((JedisPool) embeddedRedis.pool, clock)
+    RateLimitPrincipal principal = new RateLimitPrincipal('user@example.com', 10, 3, false)
+
+    when: "a request arrives every second for 1000 seconds"
+    int admitted = 0
+    1000.times {
+      if (!subject.incrementAndGetRate(principal).throttled) {
+        admitted++
+      }
+      now += 1000
+    }
+
+    then: "the burst of 3, plus one every 10s/3 until the last request (at 999s)"
+    admitted == 302
+  }
+
+  private static int hammer(RateLimiter rateLimiter, RateLimitPrincipal principal, int threads, int requestsPerThread) {
+    def executor = Executors.newFixedThreadPool(threads)
+    try {
+      def futures = executor.invokeAll((1..threads).collect {
+        { ->
+          (1..requestsPerThread).count { !rateLimiter.incrementAndGetRate(principal).throttled }
+        } as Callable<Integer>
+      })
+      return futures.sum { it.get() } as int
+    } finally {
+      executor.shutdownNow()
+    }
+  }
+}
@@ -91,4 +91,38 @@ class RedisRateLimitPrincipalProviderSpec extends Specification {
     'source-app-user'       | 'gate'     || 25               | 10                  | true
     'source-app-user'       | 'deck'     || 7                | 10                  | false
   }
+
+  def 'should serve cached principal config until refreshed'() {
+    given:
+    def config = new RateLimiterConfiguration(capacity: 60, learning: true)
+    config.redis.principalConfig.cached = true
+
+    and:
+    embeddedRedis.pool.resource.withCloseable { jedis ->
+      jedis.set('rateLimit:capacity:cached-override', '15')
+      jedis.sadd('rateLimit:enforcing', 'cached-override')
+    }
+
+    and:
+    RedisRateLimitPrincipalProvider subject = new RedisRateLimitPrincipalProvider((JedisPool) embeddedRedis.pool, config)
+
+    when:
+    embeddedRedis.pool.resource.withCloseable { jedis ->
+      jedis.set('rateLimit:capacity:cached-override', '30')
+      jedis.srem('rateLimit:enforcing', 'cached-override')
+    }
+    def principal = subject.getPrincipal('cached-override', null)
+
+    then:
+    principal.capacity == 15
+    !principal.learning
+
+    when:
+    subject.refreshPrincipalConfig()
+    principal = subject.getPrincipal('cached-override', null)
+
+    then:
+    principal.capacity == 30
+    principal.learning
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services
+
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class ClouddriverDetailsLookupSpec extends Specification {
+
+  @AutoCleanup("shutdown")
+  def detailsLookup = new ClouddriverDetailsLookup(1, 1)
+
+  def "should run calls on the caller's thread once the pool and its queue are full"() {
+    given:
+    def release = new CountDownLatch(1)
+    def started = new CountDownLatch(1)
+    def busy = detailsLookup.supplyAsync({
+      started.countDown()
+      release.await(10, TimeUnit.SECONDS)
+      Thread.currentThread().name
+    } as Callable<String>)
+    started.await(10, TimeUnit.SECONDS)
+    def queued = detailsLookup.supplyAsync({ Thread.currentThread().name } as Callable<String>)
+
+    when:
+    def overflow = detailsLookup.supplyAsync({ Thread.currentThread().name } as Callable<String>)
+
+    then:
+    overflow.isDone()
+    overflow.join() == Thread.currentThread().name
+
+    when:
+    release.countDown()
+
+    then:
+    busy.get(10, TimeUnit.SECONDS).startsWith("clouddriver-details-lookup-")
+    queued.get(10, TimeUnit.SECONDS).startsWith("clouddriver-details-lookup-")
+  }
+}
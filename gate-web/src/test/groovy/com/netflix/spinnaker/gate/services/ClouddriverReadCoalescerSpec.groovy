@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services
+
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService
+import com.netflix.spinnaker.security.AuthenticatedRequest
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+
+import static com.netflix.spinnaker.gate.services.ClouddriverReadCoalescer.CLUSTERS
+import static com.netflix.spinnaker.gate.services.ClouddriverReadCoalescer.SECURITY_GROUPS
+
+class ClouddriverReadCoalescerSpec extends Specification {
+  def registry = new DefaultRegistry()
+  def service = Mock(ClouddriverService)
+  long now = 0
+
+  def coalescer(long ttlMs, List<String> endpoints = [CLUSTERS]) {
+    new ClouddriverReadCoalescer(registry, true, ttlMs, endpoints, { now })
+  }
+
+  def calls(String endpoint, String result) {
+    registry.counter("clouddriver.coalescing.calls", "endpoint", endpoint, "result", result).count()
+  }
+
+  def cleanup() {
+    AuthenticatedRequest.clear()
+  }
+
+  def "should share an in-flight call with concurrent identical callers"() {
+    given:
+    def coalescer = coalescer(0)
+    def upstreamCalls = new AtomicInteger()
+    def release = new CountDownLatch(1)
+    Function<ClouddriverService, Map> call = {
+      upstreamCalls.incrementAndGet()
+      release.await(10, TimeUnit.SECONDS)
+      [app: [:]]
+    }
+
+    when:
+    def first = CompletableFuture.supplyAsync { withUser("user") { coalescer.execute(CLUSTERS, service, call, "app") } }
+    while (calls(CLUSTERS, "issued") == 0) {
+      Thread.sleep(1)
+    }
+    def second = CompletableFuture.supplyAsync { withUser("user") { coalescer.execute(CLUSTERS, service, call, "app") } }
+    while (calls(CLUSTERS, "coalesced") == 0) {
+      Thread.sleep(1)
+    }
+    release.countDown()
+
+    then:
+    first.get(10, TimeUnit.SECONDS).is(second.get(10, TimeUnit.SECONDS))
+    upstreamCalls.get() == 1
+    calls(CLUSTERS, "issued") == 1
+    calls(CLUSTERS, "coalesced") == 1
+
+    when: "the call has completed and there is no ttl"
+    withUser("user") { coalescer.execute(CLUSTERS, service, call, "app") }
+
+    then:
+    upstreamCalls.get() == 2
+  }
+
+  def "should reuse a completed result within the ttl, for the same user and arguments only"() {
+    given:
+    def coalescer = coalescer(1000)
+    def upstreamCalls = new AtomicInteger()
+    Function<ClouddriverService, Map> call = { [call: upstreamCalls.incrementAndGet()] }
+
+    when:
+    def results = [
+      withUser("user") { coalescer.execute(CLUSTERS, service, call, "app") },
+      withUser("user") { coalescer.execute(CLUSTERS, service, call, "app") },
+      withUser("other") { coalescer.execute(CLUSTERS, service, call, "app") },
+      withUser("user") { coalescer.execute(CLUSTERS, service, call, "other-app") },
+      withUser("user") { coalescer.execute(CLUSTERS, Mock(ClouddriverService), call, "app") }
+    ]
+
+    then:
+    results*.call == [1, 1, 2, 3, 4]
+    calls(CLUSTERS, "coalesced") == 1
+
+    when:
+    now += 1000
+
+    then:
+    withUser("user") { coalescer.execute(CLUSTERS, service, call, "app") } == [call: 5]
+  }
+
+  def "should not reuse failures"() {
+    given:
+    def coalescer = coalescer(1000)
+    def upstreamCalls = new AtomicInteger()
+    Function<ClouddriverService, Map> call = {
+      if (upstreamCalls.incrementAndGet() == 1) {
+        throw new IllegalStateException("upstream failure")
+      }
+      [:]
+    }
+
+    when:
+    coalescer.execute(CLUSTERS, service, call, "app")
+
+    then:
+    thrown(IllegalStateException)
+
+    when:
+    def result = coalescer.execute(CLUSTERS, service, call, "app")
+
+    then:
+    result == [:]
+    upstreamCalls.get() == 2
+  }
+
+  def "should not leave a call that threw a checked exception in flight"() {
+    given:
+    def coalescer = coalescer(1000)
+    def upstreamCalls = new AtomicInteger()
+    Function<ClouddriverService, Map> call = {
+      if (upstreamCalls.incrementAndGet() == 1) {
+        throw new IOException("connection reset")
+      }
+      [:]
+    }
+
+    when:
+    coalescer.execute(CLUSTERS, service, call, "app")
+
+    then:
+    thrown(IOException)
+
+    when:
+    def result = CompletableFuture.supplyAsync { coalescer.execute(CLUSTERS, service, call, "app") }
+      .get(10, TimeUnit.SECONDS)
+
+    then:
+    result == [:]
+    upstreamCalls.get() == 2
+  }
+
+  def "should invoke every call when disabled, or for endpoints that are not enabled"() {
+    given:
+    def upstreamCalls = new AtomicInteger()
+    Function<ClouddriverService, Map> call = { [call: upstreamCalls.incrementAndGet()] }
+
+    when:
+    coalescer.execute(SECURITY_GROUPS, service, call)
+    coalescer.execute(SECURITY_GROUPS, service, call)
+
+    then:
+    upstreamCalls.get() == 2
+
+    where:
+    coalescer << [
+      ClouddriverReadCoalescer.DISABLED,
+      new ClouddriverReadCoalescer(new DefaultRegistry(), false, 1000, [SECURITY_GROUPS], { 0L }),
+      new ClouddriverReadCoalescer(new DefaultRegistry(), true, 1000, [CLUSTERS], { 0L })
+    ]
+  }
+
+  private static <T> T withUser(String user, Closure<T> closure) {
+    AuthenticatedRequest.setUser(user)
+    try {
+      return closure.call()
+    } finally {
+      AuthenticatedRequest.clear()
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.gate.services
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.gate.services.internal.ClouddriverService
+import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
+import okhttp3.MediaType
+import okhttp3.ResponseBody
+import retrofit2.mock.Calls
+import spock.lang.Specification
+import spock.lang.Subject
+
+class SearchServiceSpec extends Specification {
+  def objectMapper = new ObjectMapper()
+  def clouddriverService = Mock(ClouddriverService)
+
+  @Subject
+  def searchService = new SearchService(
+    clouddriverServiceSelector: Stub(ClouddriverServiceSelector) {
+      select() >> clouddriverService
+    },
+    objectMapper: objectMapper,
+    maxPageSize: 2
+  )
+
+  def "should relay search results, capping the page size"() {
+    given:
+    def outputStream = new ByteArrayOutputStream()
+
+    when:
+    searchService.search("app", "serverGroups", null, null, 100, 1, [:], outputStream)
+
+    then:
+    1 * clouddriverService.searchStream("app", "serverGroups", null, 2, 1, [:]) >> Calls.response(json([
+      [totalMatches: 3, pageSize: 2, results: [[name: "app-v001", tags: [a: [1, 2]]], [name: "app-v002"], [name: "app-v003"]]]
+    ]))
+    objectMapper.readValue(outputStream.toByteArray(), List) == [
+      [totalMatches: 3, pageSize: 2, results: [[name: "app-v001", tags: [a: [1, 2]]], [name: "app-v002"]]]
+    ]
+  }
+
+  def "should return the first result of the first page"() {
+    when:
+    def result = searchService.searchFirst("sg-1234", "securityGroups", null, null, [:])
+
+    then:
+    1 * clouddriverService.searchStream("sg-1234", "securityGroups", null, 1, 1, [:]) >> Calls.response(json(response))
+    result == expected
+
+    where:
+    response                                                               || expected
+    [[totalMatches: 2, results: [[id: "sg-1234", url: "/1"], [id: "sg-1234", url: "/2"]]]] || [id: "sg-1234", url: "/1"]
+    [[platform: "aws", query: "sg-1234", results: [[url: "/1"]]]]          || [url: "/1"]
+    [[totalMatches: 0, results: []], [results: [[url: "/1"]]]]             || null
+    []                                                                     || null
+  }
+
+  private ResponseBody json(Object value) {
+    return ResponseBody.create(MediaType.parse("application/json"), objectMapper.writeValueAsString(value))
+  }
+}
@@ -21,6 +21,12 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.gate.config.InsightConfiguration
 import com.netflix.spinnaker.gate.services.internal.ClouddriverService
 import com.netflix.spinnaker.gate.services.internal.ClouddriverServiceSelector
+import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerHttpException
+import okhttp3.MediaType
+import okhttp3.ResponseBody
+import retrofit2.Response
+import retrofit2.Retrofit
+import retrofit2.converter.jackson.JacksonConverterFactory
 import retrofit2.mock.Calls
 import spock.lang.Specification
 
@@ -53,10 +59,74 @@ class ServerGroupServiceSpec extends Specification {
     ]
   }
 
+  void "should use cached account details rather than fetching them from clouddriver"() {
+    given:
+    def account = new ClouddriverService.AccountDetails(name: "account", type: "aws")
+    account.set("awsAccount", "prod")
+    def service = new ServerGroupService(
+      objectMapper: new ObjectMapper(),
+      clouddriverServiceSelector: Mock(ClouddriverServiceSelector) {
+        1 * select() >> {
+          Mock(ClouddriverService) {
+            1 * getServerGroupDetails(_, _, _, _ ,_) >> { return Calls.response([cloudProvider: "aws"]) }
+            0 * getAccount(_)
+          }
+        }
+      },
+      accountLookupService: Stub(AccountLookupService) {
+        getAccounts() >> [account]
+        getAccount("account") >> account
+      },
+      insightConfiguration: new InsightConfiguration(
+        serverGroup: [new InsightConfiguration.Link(url: '${serverGroup}-${cloudProvider}-${awsAccount}')]
+      )
+    )
+
+    expect:
+    service.getForApplicationAndAccountAndRegion("application", "account", "region", "serverGroup", null, "true").insightActions*.url == [
+      "serverGroup-aws-prod"
+    ]
+  }
+
+  void "should return an empty map for a server group that does not exist"() {
+    given:
+    def service = new ServerGroupService(
+      objectMapper: new ObjectMapper(),
+      clouddriverServiceSelector: Stub(ClouddriverServiceSelector) {
+        select() >> Stub(ClouddriverService) {
+          getServerGroupDetails(_, _, _, _ ,_) >> {
+            throw makeSpinnakerHttpException(404)
+          }
+          getAccount(_) >> { return Calls.response([awsAccount: "prod"]) }
+        }
+      },
+      insightConfiguration: new InsightConfiguration()
+    )
+
+    expect:
+    service.getForApplicationAndAccountAndRegion("application", "account", "region", "serverGroup", null, "true") == [:]
+  }
+
   void "should include application, account, region, cluster, and serverGroup in context"() {
     expect:
     ServerGroupService.getContext("app", "prod", "us-west-1", "app-main-v001") == [
         "application": "app", "account": "prod", "region": "us-west-1", "serverGroup": "app-main-v001", "cluster": "app-main"
     ]
   }
+
+  static SpinnakerHttpException makeSpinnakerHttpException(int code) {
+    Response<Object> retrofit2Response =
+      Response.error(
+        code,
+        ResponseBody.create(
+          MediaType.parse("application/json"), "{}"))
+
+    Retrofit retrofit =
+      new Retrofit.Builder()
+        .baseUrl("https://some-url")
+        .addConverterFactory(JacksonConverterFactory.create())
+        .build()
+
+    return new SpinnakerHttpException(retrofit2Response, retrofit)
+  }
 }
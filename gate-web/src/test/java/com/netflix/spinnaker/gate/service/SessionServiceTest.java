@@ -16,14 +16,22 @@
 
 package com.netflix.spinnaker.gate.service;
 
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.gate.services.SessionService;
 import com.netflix.spinnaker.kork.jedis.EmbeddedRedis;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
 
 public class SessionServiceTest {
 
@@ -41,6 +49,11 @@ public class SessionServiceTest {
     }
   }
 
+  @AfterEach
+  public void flush() {
+    embeddedRedis.getJedis().flushAll();
+  }
+
   @Test
   public void shouldDeleteSpringSessions() {
     // Given
@@ -62,4 +75,125 @@ public class SessionServiceTest {
         springSessionKeys.isEmpty(), "Spring session keys should have been deleted");
     Assertions.assertEquals(1, otherKeys.size(), "Other keys should remain");
   }
+
+  @Test
+  public void shouldDeleteSpringSessionsInBatches() {
+    // Given
+    Jedis jedis = embeddedRedis.getJedis();
+    for (int i = 0; i < 1000; i++) {
+      jedis.set("spring:session:sessions:" + i, "session-data");
+    }
+    jedis.set("other:key", "other-data");
+
+    SessionService subject =
+        new SessionService(embeddedRedis.getPool(), new NoopRegistry(), 50, 0);
+
+    // When
+    subject.deleteSpringSessions();
+
+    // Then
+    Assertions.assertTrue(
+        jedis.keys("spring:session*").isEmpty(), "Spring session keys should have been deleted");
+    Assertions.assertNull(
+        jedis.get(SessionService.PURGE_CURSOR_KEY), "Completed purge should not be resumed");
+    Assertions.assertEquals("other-data", jedis.get("other:key"), "Other keys should remain");
+  }
+
+  @Test
+  public void shouldResumeInterruptedPurge() throws Exception {
+    // Given
+    Jedis jedis = embeddedRedis.getJedis();
+    for (int i = 0; i < 1000; i++) {
+      jedis.set("spring:session:sessions:" + i, "session-data");
+      // keeps the keyspace from being resized (and rescanned) as sessions are deleted
+      jedis.set("other:key:" + i, "other-data");
+    }
+
+    // a purge that was interrupted after scanning (but before deleting) its first batch
+    ScanResult<String> firstBatch =
+        jedis.scan(
+            ScanParams.SCAN_POINTER_START, new ScanParams().match("spring:session*").count(50));
+    Assertions.assertNotEquals(ScanParams.SCAN_POINTER_START, firstBatch.getCursor());
+    Assertions.assertFalse(firstBatch.getResult().isEmpty());
+    jedis.set(SessionService.PURGE_CURSOR_KEY, firstBatch.getCursor());
+
+    Registry registry = new DefaultRegistry();
+    SessionService subject = new SessionService(embeddedRedis.getPool(), registry, 50, 0);
+
+    // When
+    subject.resumeInterruptedPurge();
+    await(() -> jedis.get(SessionService.PURGE_CURSOR_KEY) == null);
+
+    // Then
+    Set<String> remaining = jedis.keys("spring:session*");
+    Assertions.assertEquals(
+        Set.copyOf(firstBatch.getResult()),
+        remaining,
+        "Only sessions before the saved cursor should remain");
+    Assertions.assertEquals(
+        1000 - remaining.size(), registry.counter("sessions.purge.deletedKeys").count());
+    Assertions.assertNull(jedis.get(SessionService.PURGE_LOCK_KEY));
+  }
+
+  @Test
+  public void shouldNotResumePurgeOwnedByAnotherInstance() {
+    // Given
+    Jedis jedis = embeddedRedis.getJedis();
+    jedis.set("spring:session:session1", "session1-data");
+    jedis.set(SessionService.PURGE_CURSOR_KEY, "42");
+    jedis.set(SessionService.PURGE_LOCK_KEY, "another-gate");
+
+    SessionService subject = new SessionService(embeddedRedis.getPool());
+
+    // When
+    subject.resumeInterruptedPurge();
+
+    // Then
+    Assertions.assertEquals("session1-data", jedis.get("spring:session:session1"));
+
+    // When
+    subject.deleteSpringSessions();
+
+    // Then
+    Assertions.assertTrue(
+        jedis.keys("spring:session*").isEmpty(), "Spring session keys should have been deleted");
+    Assertions.assertEquals(
+        "42",
+        jedis.get(SessionService.PURGE_CURSOR_KEY),
+        "The owner's cursor should be left alone");
+    Assertions.assertEquals("another-gate", jedis.get(SessionService.PURGE_LOCK_KEY));
+  }
+
+  @Test
+  public void shouldExpireTheSavedCursor() throws Exception {
+    // Given
+    Jedis jedis = embeddedRedis.getJedis();
+    for (int i = 0; i < 1000; i++) {
+      jedis.set("spring:session:sessions:" + i, "session-data");
+    }
+
+    SessionService subject =
+        new SessionService(embeddedRedis.getPool(), new NoopRegistry(), 10, 20, 60_000);
+
+    // When
+    CompletableFuture<Void> purge = CompletableFuture.runAsync(subject::deleteSpringSessions);
+    await(() -> jedis.exists(SessionService.PURGE_CURSOR_KEY));
+    long cursorTtl = jedis.pttl(SessionService.PURGE_CURSOR_KEY);
+    long lockTtl = jedis.pttl(SessionService.PURGE_LOCK_KEY);
+    purge.get();
+
+    // Then
+    Assertions.assertTrue(cursorTtl > 0 && cursorTtl <= 60_000, "cursor ttl: " + cursorTtl);
+    Assertions.assertTrue(lockTtl > 0, "lock ttl: " + lockTtl);
+    Assertions.assertNull(jedis.get(SessionService.PURGE_CURSOR_KEY));
+    Assertions.assertNull(jedis.get(SessionService.PURGE_LOCK_KEY));
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean()) {
+      Assertions.assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting");
+      Thread.sleep(5);
+    }
+  }
 }
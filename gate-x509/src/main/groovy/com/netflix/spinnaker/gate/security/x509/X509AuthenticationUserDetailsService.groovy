@@ -18,6 +18,7 @@ package com.netflix.spinnaker.gate.security.x509
 
 import com.github.benmanes.caffeine.cache.Cache
 import com.github.benmanes.caffeine.cache.Caffeine
+import com.github.benmanes.caffeine.cache.Expiry
 
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.fiat.model.UserPermission
@@ -42,6 +43,7 @@ import org.springframework.security.web.authentication.preauth.PreAuthenticatedA
 import org.springframework.stereotype.Component
 
 import javax.naming.ldap.LdapName
+import java.security.MessageDigest
 import java.security.cert.X509Certificate
 import java.time.Clock
 import java.time.Duration
@@ -52,6 +54,10 @@ import java.util.concurrent.TimeUnit
  * This class is similar to a UserDetailService, but instead of passing in a username to loadUserDetails,
  * it passes in a token containing the x509 certificate. A user can control the principal through the
  * `spring.x509.subjectPrincipalRegex` property.
+ *
+ * When `x509.userDetailsCache` is enabled, the resulting user details are cached by certificate (SHA-256)
+ * fingerprint until the earlier of the certificate expiring and `x509.userDetailsCache.ttlSeconds` elapsing,
+ * or the user's Fiat permission being invalidated.
  */
 @Component
 @Slf4j
@@ -92,6 +98,7 @@ class X509AuthenticationUserDetailsService implements AuthenticationUserDetailsS
   List<String> requiredRoles = []
 
   final Cache<String, Instant> loginDebounce = Caffeine.newBuilder().expireAfterWrite(30, TimeUnit.MINUTES).build()
+  final Cache<String, CachedUserDetails> userDetailsCache
   final Clock clock
 
   X509AuthenticationUserDetailsService() {
@@ -101,6 +108,10 @@ class X509AuthenticationUserDetailsService implements AuthenticationUserDetailsS
   @PackageScope
   X509AuthenticationUserDetailsService(Clock clock) {
     this.clock = clock
+    this.userDetailsCache = Caffeine.newBuilder()
+      .maximumSize(10_000)
+      .expireAfter(new CachedUserDetailsExpiry(clock))
+      .build()
   }
 
 
@@ -113,6 +124,18 @@ class X509AuthenticationUserDetailsService implements AuthenticationUserDetailsS
 
     def x509 = (X509Certificate) token.credentials
 
+    boolean userDetailsCacheEnabled = dynamicConfigService.isEnabled('x509.userDetailsCache', false)
+    String fingerprint = null
+    if (userDetailsCacheEnabled) {
+      fingerprint = fingerprint(x509)
+      def cached = userDetailsCache.getIfPresent(fingerprint)
+      if (cached != null && isCurrent(cached)) {
+        registry.counter(registry.createId("x509.userDetailsCache").withTag("result", "hit")).increment()
+        return cached.user
+      }
+      registry.counter(registry.createId("x509.userDetailsCache").withTag("result", "miss")).increment()
+    }
+
     String email = identityFromCertificate(x509) ?: token.principal?.toString()
 
     if (email == null) {
@@ -130,11 +153,38 @@ class X509AuthenticationUserDetailsService implements AuthenticationUserDetailsS
     }
 
     log.debug("Roles for user {}: {}", email, roles)
-    return new User(
+    def user = new User(
         email: email,
         allowedAccounts: allowedAccountsSupport.filterAllowedAccounts(email, roles),
         roles: roles
     )
+
+    if (userDetailsCacheEnabled) {
+      final Duration ttl = Duration.ofSeconds(dynamicConfigService.getConfig(Long, 'x509.userDetailsCache.ttlSeconds', TimeUnit.MINUTES.toSeconds(5)))
+      Instant expiresAt = clock.instant().plus(ttl)
+      if (x509.notAfter != null && x509.notAfter.toInstant().isBefore(expiresAt)) {
+        expiresAt = x509.notAfter.toInstant()
+      }
+      userDetailsCache.put(fingerprint, new CachedUserDetails(email, user, expiresAt))
+    }
+
+    return user
+  }
+
+  /**
+   * A cached user is only current while Fiat still holds a cached permission for them, so that invalidating a
+   * user's permission (ie. on login, logout or a legacy fallback) also discards their cached details.
+   */
+  private boolean isCurrent(CachedUserDetails cached) {
+    if (!clock.instant().isBefore(cached.expiresAt)) {
+      return false
+    }
+    return !fiatStatus.isEnabled() || fiatPermissionEvaluator.hasCachedPermission(cached.email)
+  }
+
+  @PackageScope
+  static String fingerprint(X509Certificate x509) {
+    return MessageDigest.getInstance("SHA-256").digest(x509.encoded).encodeHex().toString()
   }
 
   @PackageScope
@@ -268,4 +318,40 @@ class X509AuthenticationUserDetailsService implements AuthenticationUserDetailsS
 
     return identity
   }
+
+  @PackageScope
+  static class CachedUserDetails {
+    final String email
+    final User user
+    final Instant expiresAt
+
+    CachedUserDetails(String email, User user, Instant expiresAt) {
+      this.email = email
+      this.user = user
+      this.expiresAt = expiresAt
+    }
+  }
+
+  private static class CachedUserDetailsExpiry implements Expiry<String, CachedUserDetails> {
+    private final Clock clock
+
+    CachedUserDetailsExpiry(Clock clock) {
+      this.clock = clock
+    }
+
+    @Override
+    long expireAfterCreate(String key, CachedUserDetails value, long currentTime) {
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(value.expiresAt.toEpochMilli() - clock.millis(), 0L))
+    }
+
+    @Override
+    long expireAfterUpdate(String key, CachedUserDetails value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime)
+    }
+
+    @Override
+    long expireAfterRead(String key, CachedUserDetails value, long currentTime, long currentDuration) {
+      return currentDuration
+    }
+  }
 }
@@ -5,8 +5,10 @@ import com.netflix.spinnaker.fiat.model.UserPermission
 import com.netflix.spinnaker.fiat.model.resources.Role
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
 import com.netflix.spinnaker.fiat.shared.FiatStatus
+import com.netflix.spinnaker.gate.security.AllowedAccountsSupport
 import com.netflix.spinnaker.gate.services.PermissionService
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken
 import spock.lang.Specification
 
 import java.security.cert.X509Certificate
@@ -160,6 +162,111 @@ class X509AuthenticationUserDetailsServiceSpec extends Specification {
     roles == [email, 'foo', 'bar']
   }
 
+  def "should cache user details by certificate fingerprint"() {
+    given:
+    def config = Stub(DynamicConfigService) {
+      getConfig(Long, 'x509.userDetailsCache.ttlSeconds', _) >> TimeUnit.MINUTES.toSeconds(5)
+      isEnabled('x509.userDetailsCache', _) >> true
+      isEnabled('x509.loginDebounce', _) >> false
+    }
+    def email = 'foo@bar.net'
+    def perms = Mock(PermissionService)
+    def clock = new TestClock()
+    def cert = Stub(X509Certificate) {
+      getEncoded() >> 'certificate'.bytes
+      getNotAfter() >> new Date(clock.millis() + TimeUnit.MINUTES.toMillis(10))
+    }
+    def token = new PreAuthenticatedAuthenticationToken(email, cert)
+    def userDetails = new X509AuthenticationUserDetailsService(clock)
+    def fiatPermissionEvaluator = Mock(FiatPermissionEvaluator)
+    def fiatStatus = Stub(FiatStatus) {
+      isEnabled() >> true
+    }
+    userDetails.setPermissionService(perms)
+    userDetails.setDynamicConfigService(config)
+    userDetails.setFiatPermissionEvaluator(fiatPermissionEvaluator)
+    userDetails.setFiatStatus(fiatStatus)
+    userDetails.setAllowedAccountsSupport(Stub(AllowedAccountsSupport) {
+      filterAllowedAccounts(email, _) >> ['test']
+    })
+    userDetails.setUserIdentifierExtractor(Stub(X509UserIdentifierExtractor) {
+      fromCertificate(cert) >> email
+    })
+    userDetails.registry = registry
+    fiatPermissionEvaluator.getPermission(email) >> new UserPermission(id: email).view
+
+    when: "initial authentication"
+    def user = userDetails.loadUserDetails(token)
+
+    then: "should call login"
+    1 * perms.login(email)
+    user.username == email
+    user.allowedAccounts == ['test']
+
+    when: "subsequent authentication with the same certificate"
+    def cached = userDetails.loadUserDetails(token)
+
+    then: "should reuse the cached user"
+    1 * fiatPermissionEvaluator.hasCachedPermission(email) >> true
+    0 * perms.login(email)
+    cached.is(user)
+
+    when: "the user's permission has been invalidated"
+    def reloaded = userDetails.loadUserDetails(token)
+
+    then: "should call login"
+    1 * fiatPermissionEvaluator.hasCachedPermission(email) >> false
+    1 * perms.login(email)
+    !reloaded.is(user)
+
+    when: "the ttl has elapsed"
+    clock.advanceTime(Duration.ofMinutes(6))
+    userDetails.loadUserDetails(token)
+
+    then: "should call login"
+    1 * perms.login(email)
+  }
+
+  def "should not cache user details beyond certificate expiry"() {
+    given:
+    def config = Stub(DynamicConfigService) {
+      getConfig(Long, 'x509.userDetailsCache.ttlSeconds', _) >> TimeUnit.MINUTES.toSeconds(5)
+      isEnabled('x509.userDetailsCache', _) >> true
+    }
+    def email = 'foo@bar.net'
+    def perms = Mock(PermissionService)
+    def clock = new TestClock()
+    def cert = Stub(X509Certificate) {
+      getEncoded() >> 'certificate'.bytes
+      getNotAfter() >> new Date(clock.millis() + TimeUnit.MINUTES.toMillis(1))
+    }
+    def token = new PreAuthenticatedAuthenticationToken(email, cert)
+    def userDetails = new X509AuthenticationUserDetailsService(clock)
+    userDetails.setPermissionService(perms)
+    userDetails.setDynamicConfigService(config)
+    userDetails.setFiatPermissionEvaluator(Mock(FiatPermissionEvaluator))
+    userDetails.setFiatStatus(Mock(FiatStatus))
+    userDetails.setAllowedAccountsSupport(Mock(AllowedAccountsSupport))
+    userDetails.setUserIdentifierExtractor(Stub(X509UserIdentifierExtractor) {
+      fromCertificate(cert) >> email
+    })
+    userDetails.registry = registry
+
+    when:
+    userDetails.loadUserDetails(token)
+    userDetails.loadUserDetails(token)
+
+    then:
+    1 * perms.login(email)
+
+    when:
+    clock.advanceTime(Duration.ofMinutes(2))
+    userDetails.loadUserDetails(token)
+
+    then:
+    1 * perms.login(email)
+  }
+
 
   static class TestClock extends Clock {
     ZoneId zone = ZoneId.of('UTC')